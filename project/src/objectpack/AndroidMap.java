@@ -637,7 +637,7 @@ public final class AndroidMap<K, V> implements Map<K, V> {
 	 */
 	private static final int BASE_SIZE = 4;
 	/**
-	 * Maximum number of entries to have in array caches.
+	 * Maximum number of entries to have in each thread's array caches.
 	 */
 	private static final int CACHE_SIZE = 10;
 	/**
@@ -645,15 +645,11 @@ public final class AndroidMap<K, V> implements Map<K, V> {
 	 */
 	private static final int[] EMPTY_IMMUTABLE_INTS = new int[0];
 	/**
-	 * Caches of small array objects to avoid spamming garbage. The cache Object[]
-	 * variable is a pointer to a linked list of array objects. The first entry in
-	 * the array is a pointer to the next array in the list; the second entry is a
-	 * pointer to the int[] hash code array for it.
+	 * Per-thread caches of small array objects to avoid spamming garbage. Each
+	 * thread keeps its own bounded caches, so allocating and freeing arrays never
+	 * takes a global lock.
 	 */
-	private static Object[] mBaseCache;
-	private static int mBaseCacheSize;
-	private static Object[] mTwiceBaseCache;
-	private static int mTwiceBaseCacheSize;
+	private static final ThreadLocal<ArrayCache> CACHES = ThreadLocal.withInitial(ArrayCache::new);
 	private final boolean mIdentityHashCode;
 	private int[] mHashes;
 	private Object[] mArray;
@@ -743,28 +739,26 @@ public final class AndroidMap<K, V> implements Map<K, V> {
 			throw new UnsupportedOperationException("AndroidMap is immutable");
 		}
 		if (size == (BASE_SIZE * 2)) {
-			synchronized (AndroidMap.class) {
-				if (mTwiceBaseCache != null) {
-					final Object[] array = mTwiceBaseCache;
-					mArray = array;
-					mTwiceBaseCache = (Object[]) array[0];
-					mHashes = (int[]) array[1];
-					array[0] = array[1] = null;
-					mTwiceBaseCacheSize--;
-					return;
-				}
+			final ArrayCache cache = CACHES.get();
+			if (cache.mTwiceBaseCache != null) {
+				final Object[] array = cache.mTwiceBaseCache;
+				mArray = array;
+				cache.mTwiceBaseCache = (Object[]) array[0];
+				mHashes = (int[]) array[1];
+				array[0] = array[1] = null;
+				cache.mTwiceBaseCacheSize--;
+				return;
 			}
 		} else if (size == BASE_SIZE) {
-			synchronized (AndroidMap.class) {
-				if (mBaseCache != null) {
-					final Object[] array = mBaseCache;
-					mArray = array;
-					mBaseCache = (Object[]) array[0];
-					mHashes = (int[]) array[1];
-					array[0] = array[1] = null;
-					mBaseCacheSize--;
-					return;
-				}
+			final ArrayCache cache = CACHES.get();
+			if (cache.mBaseCache != null) {
+				final Object[] array = cache.mBaseCache;
+				mArray = array;
+				cache.mBaseCache = (Object[]) array[0];
+				mHashes = (int[]) array[1];
+				array[0] = array[1] = null;
+				cache.mBaseCacheSize--;
+				return;
 			}
 		}
 		mHashes = new int[size];
@@ -773,32 +767,43 @@ public final class AndroidMap<K, V> implements Map<K, V> {
 
 	private static void freeArrays(final int[] hashes, final Object[] array, final int size) {
 		if (hashes.length == (BASE_SIZE * 2)) {
-			synchronized (AndroidMap.class) {
-				if (mTwiceBaseCacheSize < CACHE_SIZE) {
-					array[0] = mTwiceBaseCache;
-					array[1] = hashes;
-					for (int i = (size << 1) - 1; i >= 2; i--) {
-						array[i] = null;
-					}
-					mTwiceBaseCache = array;
-					mTwiceBaseCacheSize++;
+			final ArrayCache cache = CACHES.get();
+			if (cache.mTwiceBaseCacheSize < CACHE_SIZE) {
+				array[0] = cache.mTwiceBaseCache;
+				array[1] = hashes;
+				for (int i = (size << 1) - 1; i >= 2; i--) {
+					array[i] = null;
 				}
+				cache.mTwiceBaseCache = array;
+				cache.mTwiceBaseCacheSize++;
 			}
 		} else if (hashes.length == BASE_SIZE) {
-			synchronized (AndroidMap.class) {
-				if (mBaseCacheSize < CACHE_SIZE) {
-					array[0] = mBaseCache;
-					array[1] = hashes;
-					for (int i = (size << 1) - 1; i >= 2; i--) {
-						array[i] = null;
-					}
-					mBaseCache = array;
-					mBaseCacheSize++;
+			final ArrayCache cache = CACHES.get();
+			if (cache.mBaseCacheSize < CACHE_SIZE) {
+				array[0] = cache.mBaseCache;
+				array[1] = hashes;
+				for (int i = (size << 1) - 1; i >= 2; i--) {
+					array[i] = null;
 				}
+				cache.mBaseCache = array;
+				cache.mBaseCacheSize++;
 			}
 		}
 	}
 
+	/**
+	 * Caches of small array objects for one thread. The cache Object[] variable is
+	 * a pointer to a linked list of array objects. The first entry in the array is
+	 * a pointer to the next array in the list; the second entry is a pointer to the
+	 * int[] hash code array for it.
+	 */
+	private static final class ArrayCache {
+		Object[] mBaseCache;
+		int mBaseCacheSize;
+		Object[] mTwiceBaseCache;
+		int mTwiceBaseCacheSize;
+	}
+
 	/**
 	 * Create a new empty AndroidMap. The default capacity of an array map is 0, and
 	 * will grow once items are added to it.
@@ -842,6 +847,24 @@ public final class AndroidMap<K, V> implements Map<K, V> {
 		}
 	}
 
+	/**
+	 * Return an immutable copy of this map. The returned {@link FrozenMap} keeps
+	 * the entries in this map's order and looks keys up through an open-addressing
+	 * table instead of a binary search on the hash array.
+	 */
+	public FrozenMap<K, V> freeze() {
+		if (mIdentityHashCode) {
+			throw new UnsupportedOperationException("Identity AndroidMap cannot be frozen");
+		}
+		final int osize = mSize;
+		final Object[] array = new Object[osize << 1];
+		System.arraycopy(mArray, 0, array, 0, osize << 1);
+		if (CONCURRENT_MODIFICATION_EXCEPTIONS && osize != mSize) {
+			throw new ConcurrentModificationException();
+		}
+		return new FrozenMap<K, V>(mHashes, array, osize);
+	}
+
 	/**
 	 * Make the array map empty. All storage is released.
 	 */
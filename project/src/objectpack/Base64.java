@@ -1,5 +1,17 @@
 package objectpack;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Base64.
  */
@@ -55,12 +67,64 @@ public class Base64 {
 			NOT_DEC, NOT_DEC, NOT_DEC, NOT_DEC, NOT_DEC, NOT_DEC, NOT_DEC, NOT_DEC, NOT_DEC, NOT_DEC, NOT_DEC, NOT_DEC,
 			NOT_DEC, NOT_DEC, NOT_DEC, NOT_DEC, NOT_DEC, NOT_DEC, NOT_DEC, NOT_DEC, NOT_DEC, NOT_DEC, NOT_DEC };
 
+	/**
+	 * URL用エンコード表.
+	 */
+	private static final byte[] ENC_URL_CD;
+
+	static {
+		// URL用のエンコード表は、62, 63番目の文字のみ異なる.
+		ENC_URL_CD = ENC_CD.clone();
+		ENC_URL_CD[62] = (byte) '-';
+		ENC_URL_CD[63] = (byte) '_';
+
+		// デコードは、どちらのエンコード表の文字も受け付ける.
+		DEC_CD['-'] = 0x0000003e;
+		DEC_CD['_'] = 0x0000003f;
+	}
+
+	/**
+	 * long単位でのバイナリ読み書き用.
+	 */
+	private static final VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class,
+			ByteOrder.BIG_ENDIAN);
+
+	/**
+	 * Appendable出力時の1回の変換単位(3の倍数).
+	 */
+	private static final int APPEND_LENGTH = 3 * 1024;
+
 	/**
 	 * コンストラクタ.
 	 */
 	private Base64() {
 	}
 
+	/**
+	 * エンコード後の長さを取得.
+	 * 
+	 * @param length エンコード対象のバイナリ長を設定します.
+	 * @return int エンコード後の文字数が返却されます.
+	 */
+	public static final int encodeLength(final int length) {
+		return encodeLength(false, length);
+	}
+
+	/**
+	 * エンコード後の長さを取得.
+	 * 
+	 * @param url    [true]の場合、URL用のエンコード(終端文字なし)での長さを取得します.
+	 * @param length エンコード対象のバイナリ長を設定します.
+	 * @return int エンコード後の文字数が返却されます.
+	 */
+	public static final int encodeLength(final boolean url, final int length) {
+		final int etc = length % 3;
+		if (url) {
+			return ((length / 3) * 4) + ((etc != 0) ? etc + 1 : 0);
+		}
+		return ((length / 3) * 4) + ((etc != 0) ? 4 : 0);
+	}
+
 	/**
 	 * エンコード処理.
 	 * 
@@ -68,7 +132,7 @@ public class Base64 {
 	 * @return byte[] Base64にエンコードされたバイナリ情報が返されます.
 	 */
 	public static final byte[] encodeBinary(final byte[] binary) {
-		return encodeBinary(binary, 0, binary.length);
+		return encodeBinary(false, binary, 0, binary.length);
 	}
 
 	/**
@@ -80,39 +144,241 @@ public class Base64 {
 	 * @return byte[] Base64にエンコードされたバイナリ情報が返されます.
 	 */
 	public static final byte[] encodeBinary(final byte[] binary, final int off, final int length) {
-		int i, j, k;
-		int len;
-		int etc;
-		byte[] ary = null;
-		etc = length % 3;
-		len = length / 3;
-		ary = new byte[(len * 4) + ((etc != 0) ? 4 : 0)];
-		for (i = 0, j = off, k = 0; i < len; i++, j += 3, k += 4) {
-			ary[k] = Base64.ENC_CD[(int) ((binary[j] & 0x000000fc) >> 2)];
-			ary[k + 1] = Base64.ENC_CD[(int) (((binary[j] & 0x00000003) << 4) | ((binary[j + 1] & 0x000000f0) >> 4))];
-			ary[k + 2] = Base64.ENC_CD[(int) (((binary[j + 1] & 0x0000000f) << 2)
-					| ((binary[j + 2] & 0x000000c0) >> 6))];
-			ary[k + 3] = Base64.ENC_CD[(int) (binary[j + 2] & 0x0000003f)];
+		return encodeBinary(false, binary, off, length);
+	}
+
+	/**
+	 * エンコード処理.
+	 * 
+	 * @param url    [true]の場合、URL用のエンコード表を利用して、終端文字を付加しません.
+	 * @param binary エンコード対象のバイナリ情報を設定します.
+	 * @param off    対象のオフセット値を設定します.
+	 * @param length 対象の長さを設定します.
+	 * @return byte[] Base64にエンコードされたバイナリ情報が返されます.
+	 */
+	public static final byte[] encodeBinary(final boolean url, final byte[] binary, final int off,
+			final int length) {
+		byte[] ary = new byte[encodeLength(url, length)];
+		encodeBinary(url, binary, off, length, ary, 0);
+		return ary;
+	}
+
+	/**
+	 * エンコード処理.
+	 * 
+	 * @param binary エンコード対象のバイナリ情報を設定します.
+	 * @param off    対象のオフセット値を設定します.
+	 * @param length 対象の長さを設定します.
+	 * @param out    出力先のバイナリを設定します.
+	 * @param outOff 出力先のオフセット値を設定します.
+	 * @return int 出力された文字数が返却されます.
+	 */
+	public static final int encode(final byte[] binary, final int off, final int length, final byte[] out,
+			final int outOff) {
+		return encode(false, binary, off, length, out, outOff);
+	}
+
+	/**
+	 * エンコード処理.
+	 * 
+	 * @param url    [true]の場合、URL用のエンコード表を利用して、終端文字を付加しません.
+	 * @param binary エンコード対象のバイナリ情報を設定します.
+	 * @param off    対象のオフセット値を設定します.
+	 * @param length 対象の長さを設定します.
+	 * @param out    出力先のバイナリを設定します.
+	 * @param outOff 出力先のオフセット値を設定します.
+	 * @return int 出力された文字数が返却されます.
+	 */
+	public static final int encode(final boolean url, final byte[] binary, final int off, final int length,
+			final byte[] out, final int outOff) {
+		if (outOff + encodeLength(url, length) > out.length) {
+			throw new IndexOutOfBoundsException("Not enough space in output buffer.");
+		}
+		return encodeBinary(url, binary, off, length, out, outOff);
+	}
+
+	/**
+	 * エンコード処理.
+	 * 
+	 * @param binary エンコード対象のバイナリ情報を設定します.
+	 * @param off    対象のオフセット値を設定します.
+	 * @param length 対象の長さを設定します.
+	 * @param out    出力先のByteBufferを設定します.
+	 * @return int 出力された文字数が返却されます.
+	 */
+	public static final int encode(final byte[] binary, final int off, final int length, final ByteBuffer out) {
+		return encode(false, binary, off, length, out);
+	}
+
+	/**
+	 * エンコード処理.
+	 * 
+	 * @param url    [true]の場合、URL用のエンコード表を利用して、終端文字を付加しません.
+	 * @param binary エンコード対象のバイナリ情報を設定します.
+	 * @param off    対象のオフセット値を設定します.
+	 * @param length 対象の長さを設定します.
+	 * @param out    出力先のByteBufferを設定します.
+	 * @return int 出力された文字数が返却されます.
+	 */
+	public static final int encode(final boolean url, final byte[] binary, final int off, final int length,
+			final ByteBuffer out) {
+		final int ret = encodeLength(url, length);
+		if (out.remaining() < ret) {
+			throw new BufferOverflowException();
+		}
+		if (out.hasArray()) {
+			// 配列に直接出力.
+			encodeBinary(url, binary, off, length, out.array(), out.arrayOffset() + out.position());
+			out.position(out.position() + ret);
+			return ret;
+		}
+		int n, p = off;
+		final int end = off + length;
+		final byte[] b = new byte[encodeLength(url, Math.min(length, APPEND_LENGTH))];
+		while (p < end) {
+			n = Math.min(end - p, APPEND_LENGTH);
+			out.put(b, 0, encodeBinary(url, binary, p, n, b, 0));
+			p += n;
+		}
+		return ret;
+	}
+
+	/**
+	 * エンコード処理.
+	 * 
+	 * @param binary エンコード対象のバイナリ情報を設定します.
+	 * @param off    対象のオフセット値を設定します.
+	 * @param length 対象の長さを設定します.
+	 * @param out    追加先のAppendable(StringBuilderなど)を設定します.
+	 * @return int 出力された文字数が返却されます.
+	 * @exception IOException 例外.
+	 */
+	public static final int encode(final byte[] binary, final int off, final int length, final Appendable out)
+			throws IOException {
+		return encode(false, binary, off, length, out);
+	}
+
+	/**
+	 * エンコード処理.
+	 * 
+	 * @param url    [true]の場合、URL用のエンコード表を利用して、終端文字を付加しません.
+	 * @param binary エンコード対象のバイナリ情報を設定します.
+	 * @param off    対象のオフセット値を設定します.
+	 * @param length 対象の長さを設定します.
+	 * @param out    追加先のAppendable(StringBuilderなど)を設定します.
+	 * @return int 出力された文字数が返却されます.
+	 * @exception IOException 例外.
+	 */
+	public static final int encode(final boolean url, final byte[] binary, final int off, final int length,
+			final Appendable out) throws IOException {
+		final int ret = encodeLength(url, length);
+		if (out instanceof StringBuilder) {
+			((StringBuilder) out).ensureCapacity(((StringBuilder) out).length() + ret);
+		}
+		int i, n, p = off;
+		final int end = off + length;
+		final byte[] b = new byte[encodeLength(url, Math.min(length, APPEND_LENGTH))];
+		final char[] c = new char[b.length];
+		while (p < end) {
+			n = Math.min(end - p, APPEND_LENGTH);
+			p += n;
+			n = encodeBinary(url, binary, p - n, n, b, 0);
+			for (i = 0; i < n; i++) {
+				c[i] = (char) b[i];
+			}
+			if (out instanceof StringBuilder) {
+				((StringBuilder) out).append(c, 0, n);
+			} else if (out instanceof Writer) {
+				((Writer) out).write(c, 0, n);
+			} else {
+				out.append(CharBuffer.wrap(c, 0, n));
+			}
+		}
+		return ret;
+	}
+
+	// エンコード処理.
+	private static final int encodeBinary(final boolean url, final byte[] binary, final int off, final int length,
+			final byte[] ary, final int aryOff) {
+		return encodeBinary(url ? Base64.ENC_URL_CD : Base64.ENC_CD, !url, binary, off, length, ary, aryOff);
+	}
+
+	/**
+	 * エンコード処理.
+	 * 
+	 * @param enc    エンコード表を設定します.
+	 * @param pad    [true]の場合、終端文字を付加します.
+	 * @param binary エンコード対象のバイナリ情報を設定します.
+	 * @param off    対象のオフセット値を設定します.
+	 * @param length 対象の長さを設定します.
+	 * @param ary    出力先のバイナリを設定します.
+	 * @param aryOff 出力先のオフセット値を設定します.
+	 * @return int 出力された文字数が返却されます.
+	 */
+	private static final int encodeBinary(final byte[] enc, final boolean pad, final byte[] binary, final int off,
+			final int length, final byte[] ary, final int aryOff) {
+		int j, k;
+		long v;
+		final int etc = length % 3;
+		final int len = length / 3;
+
+		// 12バイト(16文字)単位で処理.
+		// long読み込みは8バイト単位なので、残り14バイト以上の間だけ処理する.
+		final int fastEnd = off + length - 14;
+		for (j = off, k = aryOff; j <= fastEnd; j += 12, k += 16) {
+			v = (long) LONG_BE.get(binary, j);
+			LONG_BE.set(ary, k, encodeLong(enc, v));
+			v = (long) LONG_BE.get(binary, j + 6);
+			LONG_BE.set(ary, k + 8, encodeLong(enc, v));
+		}
+
+		// 残りを3バイト(4文字)単位で処理.
+		final int end = off + (len * 3);
+		for (; j < end; j += 3, k += 4) {
+			ary[k] = enc[(int) ((binary[j] & 0x000000fc) >> 2)];
+			ary[k + 1] = enc[(int) (((binary[j] & 0x00000003) << 4) | ((binary[j + 1] & 0x000000f0) >> 4))];
+			ary[k + 2] = enc[(int) (((binary[j + 1] & 0x0000000f) << 2) | ((binary[j + 2] & 0x000000c0) >> 6))];
+			ary[k + 3] = enc[(int) (binary[j + 2] & 0x0000003f)];
 		}
 		switch (etc) {
 		case 1:
-			j = (len * 3) + off;
-			k = len * 4;
-			ary[k] = Base64.ENC_CD[(int) ((binary[j] & 0x000000fc) >> 2)];
-			ary[k + 1] = Base64.ENC_CD[(int) ((binary[j] & 0x00000003) << 4)];
+			ary[k] = enc[(int) ((binary[j] & 0x000000fc) >> 2)];
+			ary[k + 1] = enc[(int) ((binary[j] & 0x00000003) << 4)];
+			if (!pad) {
+				return k + 2 - aryOff;
+			}
 			ary[k + 2] = Base64.REMAINDER_ENC;
 			ary[k + 3] = Base64.REMAINDER_ENC;
-			break;
+			return k + 4 - aryOff;
 		case 2:
-			j = (len * 3) + off;
-			k = len * 4;
-			ary[k] = Base64.ENC_CD[(int) ((binary[j] & 0x000000fc) >> 2)];
-			ary[k + 1] = Base64.ENC_CD[(int) (((binary[j] & 0x00000003) << 4) | ((binary[j + 1] & 0x000000f0) >> 4))];
-			ary[k + 2] = Base64.ENC_CD[(int) (((binary[j + 1] & 0x0000000f) << 2))];
+			ary[k] = enc[(int) ((binary[j] & 0x000000fc) >> 2)];
+			ary[k + 1] = enc[(int) (((binary[j] & 0x00000003) << 4) | ((binary[j + 1] & 0x000000f0) >> 4))];
+			ary[k + 2] = enc[(int) (((binary[j + 1] & 0x0000000f) << 2))];
+			if (!pad) {
+				return k + 3 - aryOff;
+			}
 			ary[k + 3] = Base64.REMAINDER_ENC;
-			break;
+			return k + 4 - aryOff;
 		}
-		return ary;
+		return k - aryOff;
+	}
+
+	/**
+	 * long値の上位48ビット(6バイト)を8文字に変換.
+	 * 
+	 * @param enc エンコード表を設定します.
+	 * @param v   対象のlong値を設定します.
+	 * @return long 8文字分のBase64文字が返却されます.
+	 */
+	private static final long encodeLong(final byte[] enc, final long v) {
+		return ((long) enc[(int) (v >>> 58)] << 56)
+				| ((long) enc[(int) (v >>> 52) & 0x3f] << 48)
+				| ((long) enc[(int) (v >>> 46) & 0x3f] << 40)
+				| ((long) enc[(int) (v >>> 40) & 0x3f] << 32)
+				| ((long) enc[(int) (v >>> 34) & 0x3f] << 24)
+				| ((long) enc[(int) (v >>> 28) & 0x3f] << 16)
+				| ((long) enc[(int) (v >>> 22) & 0x3f] << 8)
+				| ((long) enc[(int) (v >>> 16) & 0x3f]);
 	}
 
 	/**
@@ -122,7 +388,7 @@ public class Base64 {
 	 * @return String Base64にエンコードされた文字情報が返されます.
 	 */
 	public static final String encode(final byte[] binary) {
-		return encode(binary, 0, binary.length);
+		return encode(false, binary, 0, binary.length);
 	}
 
 	/**
@@ -134,8 +400,22 @@ public class Base64 {
 	 * @return String Base64にエンコードされた文字情報が返されます.
 	 */
 	public static final String encode(final byte[] binary, final int off, final int len) {
-		byte[] ary = encodeBinary(binary, off, len);
-		String ret = BinaryUtils.toString(ary, 0, ary.length);
+		return encode(false, binary, off, len);
+	}
+
+	/**
+	 * エンコード処理.
+	 * 
+	 * @param url    [true]の場合、URL用のエンコード表を利用して、終端文字を付加しません.
+	 * @param binary エンコード対象のバイナリ情報を設定します.
+	 * @param off    対象のオフセット値を設定します.
+	 * @param len    対象の長さを設定します.
+	 * @return String Base64にエンコードされた文字情報が返されます.
+	 */
+	public static final String encode(final boolean url, final byte[] binary, final int off, final int len) {
+		byte[] ary = encodeBinary(url, binary, off, len);
+		// ISO-8859-1での文字列化は、文字配列を介さずに生成される.
+		String ret = new String(ary, StandardCharsets.ISO_8859_1);
 		ary = null;
 		return ret;
 	}
@@ -147,7 +427,7 @@ public class Base64 {
 	 * @return byte[] 変換されたバイナリ情報が返されます.
 	 */
 	public static final byte[] decode(final String base64) {
-		return decode(base64, 0, base64.length());
+		return decode((CharSequence) base64, 0, base64.length());
 	}
 
 	/**
@@ -159,53 +439,522 @@ public class Base64 {
 	 * @return byte[] 変換されたバイナリ情報が返されます.
 	 */
 	public static final byte[] decode(final String base64, final int off, final int length) {
-		int i, j, k, len, etc;
-		byte[] ret = null;
-		for (i = off + length - 1, etc = 0; i >= 0; i--) {
-			if (base64.charAt(i) == Base64.REMAINDER_ENC) {
-				etc++;
-			} else {
+		return decode((CharSequence) base64, off, length);
+	}
+
+	/**
+	 * デコード処理.
+	 * 
+	 * @param base64 対象のBase64データを設定します.
+	 * @return byte[] 変換されたバイナリ情報が返されます.
+	 */
+	public static final byte[] decode(final CharSequence base64) {
+		return decode(base64, 0, base64.length());
+	}
+
+	/**
+	 * デコード処理.
+	 * 終端文字(=)が省略されたデータもデコードできます.
+	 * 
+	 * @param base64 対象のBase64データを設定します.
+	 * @param off    対象のオフセット値を設定します.
+	 * @param length 対象の長さを設定します.
+	 * @return byte[] 変換されたバイナリ情報が返されます.
+	 */
+	public static final byte[] decode(final CharSequence base64, final int off, int length) {
+		int j, k;
+		int a, b, c, d, e, f, g, h;
+		final int[] dec = Base64.DEC_CD;
+		while (length > 0 && base64.charAt(off + length - 1) == Base64.REMAINDER_ENC) {
+			length--;
+		}
+		final int etc = length & 3;
+		if (etc == 1) {
+			throw new IllegalArgumentException("Illegal base64 length.");
+		}
+		final byte[] ret = new byte[((length >> 2) * 3) + ((etc != 0) ? etc - 1 : 0)];
+
+		// 8文字(6バイト)単位で処理.
+		// long書き込みは8バイト単位なので、出力先に8バイト以上の余裕がある間だけ処理する.
+		final int end = off + (length & ~3);
+		for (j = off, k = 0; j + 8 <= end && k + 8 <= ret.length; j += 8, k += 6) {
+			a = dec[base64.charAt(j)];
+			b = dec[base64.charAt(j + 1)];
+			c = dec[base64.charAt(j + 2)];
+			d = dec[base64.charAt(j + 3)];
+			e = dec[base64.charAt(j + 4)];
+			f = dec[base64.charAt(j + 5)];
+			g = dec[base64.charAt(j + 6)];
+			h = dec[base64.charAt(j + 7)];
+			// 範囲外の文字が含まれる場合は、4文字単位の処理に任せる.
+			if (((a | b | c | d | e | f | g | h) & 0xffffffc0) != 0) {
 				break;
 			}
+			LONG_BE.set(ret, k, ((long) a << 58) | ((long) b << 52) | ((long) c << 46) | ((long) d << 40)
+					| ((long) e << 34) | ((long) f << 28) | ((long) g << 22) | ((long) h << 16));
 		}
-		len = length / 4;
-		ret = new byte[(len * 3) - etc];
-		len -= 1;
-		for (i = 0, j = off, k = 0; i < len; i++, j += 4, k += 3) {
-			ret[k] = (byte) (((Base64.DEC_CD[base64.charAt(j)] & 0x0000003f) << 2)
-					| ((Base64.DEC_CD[base64.charAt(j + 1)] & 0x00000030) >> 4));
-			ret[k + 1] = (byte) (((Base64.DEC_CD[base64.charAt(j + 1)] & 0x0000000f) << 4)
-					| ((Base64.DEC_CD[base64.charAt(j + 2)] & 0x0000003c) >> 2));
-			ret[k + 2] = (byte) (((Base64.DEC_CD[base64.charAt(j + 2)] & 0x00000003) << 6)
-					| (Base64.DEC_CD[base64.charAt(j + 3)] & 0x0000003f));
+
+		// 残りを4文字(3バイト)単位で処理.
+		for (; j < end; j += 4, k += 3) {
+			ret[k] = (byte) (((dec[base64.charAt(j)] & 0x0000003f) << 2)
+					| ((dec[base64.charAt(j + 1)] & 0x00000030) >> 4));
+			ret[k + 1] = (byte) (((dec[base64.charAt(j + 1)] & 0x0000000f) << 4)
+					| ((dec[base64.charAt(j + 2)] & 0x0000003c) >> 2));
+			ret[k + 2] = (byte) (((dec[base64.charAt(j + 2)] & 0x00000003) << 6)
+					| (dec[base64.charAt(j + 3)] & 0x0000003f));
 		}
-		switch (etc) {
-		case 0:
-			j = (len * 4) + off;
-			k = len * 3;
-			ret[k] = (byte) (((Base64.DEC_CD[base64.charAt(j)] & 0x0000003f) << 2)
-					| ((Base64.DEC_CD[base64.charAt(j + 1)] & 0x00000030) >> 4));
-			ret[k + 1] = (byte) (((Base64.DEC_CD[base64.charAt(j + 1)] & 0x0000000f) << 4)
-					| ((Base64.DEC_CD[base64.charAt(j + 2)] & 0x0000003c) >> 2));
-			ret[k + 2] = (byte) (((Base64.DEC_CD[base64.charAt(j + 2)] & 0x00000003) << 6)
-					| (Base64.DEC_CD[base64.charAt(j + 3)] & 0x0000003f));
-			break;
-		case 1:
-			j = (len * 4) + off;
-			k = len * 3;
-			ret[k] = (byte) (((Base64.DEC_CD[base64.charAt(j)] & 0x0000003f) << 2)
-					| ((Base64.DEC_CD[base64.charAt(j + 1)] & 0x00000030) >> 4));
-			ret[k + 1] = (byte) (((Base64.DEC_CD[base64.charAt(j + 1)] & 0x0000000f) << 4)
-					| ((Base64.DEC_CD[base64.charAt(j + 2)] & 0x0000003c) >> 2));
-			break;
-		case 2:
-			j = (len * 4) + off;
-			k = len * 3;
-			ret[k] = (byte) (((Base64.DEC_CD[base64.charAt(j)] & 0x0000003f) << 2)
-					| ((Base64.DEC_CD[base64.charAt(j + 1)] & 0x00000030) >> 4));
-			break;
+
+		// 終端の余り文字を処理.
+		if (etc >= 2) {
+			ret[k] = (byte) (((dec[base64.charAt(j)] & 0x0000003f) << 2)
+					| ((dec[base64.charAt(j + 1)] & 0x00000030) >> 4));
+			if (etc == 3) {
+				ret[k + 1] = (byte) (((dec[base64.charAt(j + 1)] & 0x0000000f) << 4)
+						| ((dec[base64.charAt(j + 2)] & 0x0000003c) >> 2));
+			}
 		}
 		return ret;
 	}
 
+	/**
+	 * ASCII文字のBase64バイナリのデコード後の長さを取得.
+	 * 
+	 * @param base64 対象のBase64文字バイナリを設定します.
+	 * @param off    対象のオフセット値を設定します.
+	 * @param length 対象の長さを設定します.
+	 * @return int デコード後のバイナリ長が返却されます.
+	 */
+	public static final int decodeLength(final byte[] base64, final int off, int length) {
+		while (length > 0 && base64[off + length - 1] == Base64.REMAINDER_ENC) {
+			length--;
+		}
+		final int etc = length & 3;
+		if (etc == 1) {
+			throw new IllegalArgumentException("Illegal base64 length.");
+		}
+		return ((length >> 2) * 3) + ((etc != 0) ? etc - 1 : 0);
+	}
+
+	/**
+	 * ASCII文字のBase64バイナリをデコード.
+	 * 
+	 * @param base64 対象のBase64文字バイナリを設定します.
+	 * @return byte[] 変換されたバイナリ情報が返されます.
+	 */
+	public static final byte[] decodeBinary(final byte[] base64) {
+		return decodeBinary(base64, 0, base64.length);
+	}
+
+	/**
+	 * ASCII文字のBase64バイナリをデコード.
+	 * 
+	 * @param base64 対象のBase64文字バイナリを設定します.
+	 * @param off    対象のオフセット値を設定します.
+	 * @param length 対象の長さを設定します.
+	 * @return byte[] 変換されたバイナリ情報が返されます.
+	 */
+	public static final byte[] decodeBinary(final byte[] base64, final int off, final int length) {
+		final byte[] ret = new byte[decodeLength(base64, off, length)];
+		decode(base64, off, length, ret, 0);
+		return ret;
+	}
+
+	/**
+	 * ASCII文字のBase64バイナリをデコード.
+	 * 終端文字(=)が省略されたデータもデコードできます.
+	 * 
+	 * @param base64 対象のBase64文字バイナリを設定します.
+	 * @param off    対象のオフセット値を設定します.
+	 * @param length 対象の長さを設定します.
+	 * @param out    出力先のバイナリを設定します.
+	 * @param outOff 出力先のオフセット値を設定します.
+	 * @return int 出力されたバイナリ長が返却されます.
+	 */
+	public static final int decode(final byte[] base64, final int off, int length, final byte[] out,
+			final int outOff) {
+		final int ret = decodeLength(base64, off, length);
+		if (outOff + ret > out.length) {
+			throw new IndexOutOfBoundsException("Not enough space in output buffer.");
+		}
+		while (length > 0 && base64[off + length - 1] == Base64.REMAINDER_ENC) {
+			length--;
+		}
+		final int etc = length & 3;
+		final int n = decodeQuads(base64, off, length & ~3, out, outOff);
+
+		// 終端の余り文字を処理.
+		if (etc != 0) {
+			final int[] dec = Base64.DEC_CD;
+			final int j = off + (length & ~3);
+			final int k = outOff + n;
+			out[k] = (byte) (((dec[base64[j] & 0xff] & 0x0000003f) << 2)
+					| ((dec[base64[j + 1] & 0xff] & 0x00000030) >> 4));
+			if (etc == 3) {
+				out[k + 1] = (byte) (((dec[base64[j + 1] & 0xff] & 0x0000000f) << 4)
+						| ((dec[base64[j + 2] & 0xff] & 0x0000003c) >> 2));
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * 4文字単位のデコード処理.
+	 * ※対象文字は全てBase64の文字である必要があります.
+	 * 
+	 * @param src    対象のBase64文字バイナリを設定します.
+	 * @param off    対象のオフセット値を設定します.
+	 * @param length 対象の長さ(4の倍数)を設定します.
+	 * @param dst    出力先のバイナリを設定します.
+	 * @param dstOff 出力先のオフセット値を設定します.
+	 * @return int 出力されたバイナリ長が返却されます.
+	 */
+	private static final int decodeQuads(final byte[] src, final int off, final int length, final byte[] dst,
+			final int dstOff) {
+		int j, k;
+		long v;
+		int a, b, c, d, e, f, g, h;
+		final int[] dec = Base64.DEC_CD;
+		final int end = off + length;
+		final int dstEnd = dstOff + ((length >> 2) * 3);
+
+		// 8文字(6バイト)単位で処理.
+		for (j = off, k = dstOff; j + 8 <= end && k + 8 <= dstEnd; j += 8, k += 6) {
+			v = (long) LONG_BE.get(src, j);
+			a = dec[(int) (v >>> 56)];
+			b = dec[(int) (v >>> 48) & 0xff];
+			c = dec[(int) (v >>> 40) & 0xff];
+			d = dec[(int) (v >>> 32) & 0xff];
+			e = dec[(int) (v >>> 24) & 0xff];
+			f = dec[(int) (v >>> 16) & 0xff];
+			g = dec[(int) (v >>> 8) & 0xff];
+			h = dec[(int) v & 0xff];
+			if (((a | b | c | d | e | f | g | h) & 0xffffffc0) != 0) {
+				break;
+			}
+			LONG_BE.set(dst, k, ((long) a << 58) | ((long) b << 52) | ((long) c << 46) | ((long) d << 40)
+					| ((long) e << 34) | ((long) f << 28) | ((long) g << 22) | ((long) h << 16));
+		}
+
+		// 残りを4文字(3バイト)単位で処理.
+		for (; j < end; j += 4, k += 3) {
+			a = dec[src[j] & 0xff];
+			b = dec[src[j + 1] & 0xff];
+			c = dec[src[j + 2] & 0xff];
+			d = dec[src[j + 3] & 0xff];
+			dst[k] = (byte) (((a & 0x0000003f) << 2) | ((b & 0x00000030) >> 4));
+			dst[k + 1] = (byte) (((b & 0x0000000f) << 4) | ((c & 0x0000003c) >> 2));
+			dst[k + 2] = (byte) (((c & 0x00000003) << 6) | (d & 0x0000003f));
+		}
+		return k - dstOff;
+	}
+
+	/**
+	 * Base64エンコード出力ストリーム.
+	 * 
+	 * 書き込まれたバイナリを逐次Base64文字に変換して、出力先のストリームに書き込みます.
+	 * 全体のBase64文字列を生成しないので、大きなデータでもメモリ量は一定です.
+	 */
+	public static final class EncodeOutputStream extends OutputStream {
+		/** 1回の変換単位(3の倍数). **/
+		private static final int BUFFER_LENGTH = 3 * 1024;
+
+		private final boolean url;
+		private final byte[] buf = new byte[BUFFER_LENGTH];
+		private final byte[] out = new byte[(BUFFER_LENGTH / 3) * 4];
+		private OutputStream o;
+		private int bufLen;
+
+		/**
+		 * コンストラクタ.
+		 * 
+		 * @param o 出力先のOutputStreamを設定します.
+		 */
+		public EncodeOutputStream(OutputStream o) {
+			this(false, o);
+		}
+
+		/**
+		 * コンストラクタ.
+		 * 
+		 * @param url [true]の場合、URL用のエンコード表を利用して、終端文字を付加しません.
+		 * @param o   出力先のOutputStreamを設定します.
+		 */
+		public EncodeOutputStream(boolean url, OutputStream o) {
+			this.url = url;
+			this.o = o;
+			this.bufLen = 0;
+		}
+
+		/**
+		 * データセット.
+		 * 
+		 * @param b 対象のバイナリ情報を設定します.
+		 * @exception IOException 例外.
+		 */
+		@Override
+		public void write(int b) throws IOException {
+			if (o == null) {
+				throw new IOException("Already closed.");
+			}
+			buf[bufLen++] = (byte) b;
+			if (bufLen == BUFFER_LENGTH) {
+				flushBuffer();
+			}
+		}
+
+		/**
+		 * データセット.
+		 * 
+		 * @param bin 対象のバイナリを設定します.
+		 * @param off 対象のオフセット値を設定します.
+		 * @param len 対象のデータ長を設定します.
+		 * @exception IOException 例外.
+		 */
+		@Override
+		public void write(byte[] bin, int off, int len) throws IOException {
+			if (o == null) {
+				throw new IOException("Already closed.");
+			}
+			int n;
+			// 前回の残りを埋める.
+			if (bufLen > 0) {
+				n = Math.min(len, BUFFER_LENGTH - bufLen);
+				System.arraycopy(bin, off, buf, bufLen, n);
+				bufLen += n;
+				off += n;
+				len -= n;
+				if (bufLen < BUFFER_LENGTH) {
+					return;
+				}
+				flushBuffer();
+			}
+			// バッファを介さずに直接変換.
+			while (len >= BUFFER_LENGTH) {
+				n = encodeBinary(url, bin, off, BUFFER_LENGTH, out, 0);
+				o.write(out, 0, n);
+				off += BUFFER_LENGTH;
+				len -= BUFFER_LENGTH;
+			}
+			if (len > 0) {
+				System.arraycopy(bin, off, buf, 0, len);
+				bufLen = len;
+			}
+		}
+
+		// バッファ内容をエンコード出力.
+		private final void flushBuffer() throws IOException {
+			final int n = encodeBinary(url, buf, 0, bufLen, out, 0);
+			bufLen = 0;
+			o.write(out, 0, n);
+		}
+
+		/**
+		 * フラッシュ.
+		 * ※3バイトに満たない残りのデータは、finish または close 処理まで保持されます.
+		 * 
+		 * @exception IOException 例外.
+		 */
+		@Override
+		public void flush() throws IOException {
+			if (o == null) {
+				return;
+			}
+			final int rem = bufLen % 3;
+			if (bufLen > rem) {
+				final int n = encodeBinary(url, buf, 0, bufLen - rem, out, 0);
+				o.write(out, 0, n);
+				System.arraycopy(buf, bufLen - rem, buf, 0, rem);
+				bufLen = rem;
+			}
+			o.flush();
+		}
+
+		/**
+		 * 出力先をクローズせずに、残りのデータを終端文字付きで出力.
+		 * 
+		 * @exception IOException 例外.
+		 */
+		public void finish() throws IOException {
+			if (o == null) {
+				return;
+			}
+			if (bufLen > 0) {
+				flushBuffer();
+			}
+			o.flush();
+		}
+
+		/**
+		 * クローズ処理.
+		 * 
+		 * @exception IOException 例外.
+		 */
+		@Override
+		public void close() throws IOException {
+			if (o == null) {
+				return;
+			}
+			try {
+				finish();
+				o.close();
+			} finally {
+				o = null;
+			}
+		}
+	}
+
+	/**
+	 * Base64デコード入力ストリーム.
+	 * 
+	 * 入力元のBase64文字を逐次読み込み、デコードしたバイナリを返却します.
+	 * 改行、空白文字は読み飛ばします. また、URL用のエンコード表の文字も受け付けます.
+	 */
+	public static final class DecodeInputStream extends InputStream {
+		/** 1回の読み込み単位(4の倍数). **/
+		private static final int BUFFER_LENGTH = 4 * 1024;
+
+		private final byte[] in = new byte[BUFFER_LENGTH];
+		private final byte[] chars = new byte[BUFFER_LENGTH + 4];
+		private final byte[] out = new byte[(BUFFER_LENGTH / 4) * 3 + 3];
+		private InputStream i;
+		private int charsLen;
+		private int outPos;
+		private int outLen;
+		private boolean eof;
+
+		/**
+		 * コンストラクタ.
+		 * 
+		 * @param i 入力元のInputStreamを設定します.
+		 */
+		public DecodeInputStream(InputStream i) {
+			this.i = i;
+			this.charsLen = 0;
+			this.outPos = 0;
+			this.outLen = 0;
+			this.eof = false;
+		}
+
+		/**
+		 * 情報の取得.
+		 * 
+		 * @return int 取得された情報が返却されます. [-1]の場合は終端です.
+		 * @exception IOException 例外.
+		 */
+		@Override
+		public int read() throws IOException {
+			if (outPos >= outLen && !fill()) {
+				return -1;
+			}
+			return out[outPos++] & 0xff;
+		}
+
+		/**
+		 * 情報の取得.
+		 * 
+		 * @param buf 対象のバッファ情報を設定します.
+		 * @param off 対象のオフセット値を設定します.
+		 * @param len 対象の長さを設定します.
+		 * @return int 取得された情報長が返却されます. [-1]の場合は終端です.
+		 * @exception IOException 例外.
+		 */
+		@Override
+		public int read(byte[] buf, int off, int len) throws IOException {
+			if (len <= 0) {
+				return 0;
+			}
+			int n, ret = 0;
+			while (len > 0) {
+				if (outPos >= outLen && !fill()) {
+					break;
+				}
+				n = Math.min(len, outLen - outPos);
+				System.arraycopy(out, outPos, buf, off, n);
+				outPos += n;
+				off += n;
+				len -= n;
+				ret += n;
+			}
+			return (ret == 0) ? -1 : ret;
+		}
+
+		/**
+		 * 読み込み可能なデータ長を取得.
+		 * 
+		 * @return int デコード済みで読み込み可能なデータ長が返却されます.
+		 */
+		@Override
+		public int available() throws IOException {
+			return outLen - outPos;
+		}
+
+		// 入力元から読み込んでデコード.
+		private final boolean fill() throws IOException {
+			if (i == null) {
+				throw new IOException("Already closed.");
+			}
+			int c, v, n;
+			outPos = 0;
+			outLen = 0;
+			while (outLen == 0) {
+				if (eof) {
+					return false;
+				}
+				// 入力元から読み込み、Base64文字のみを抽出.
+				n = i.read(in, 0, BUFFER_LENGTH - charsLen);
+				if (n == -1) {
+					eof = true;
+				}
+				for (int j = 0; j < n; j++) {
+					c = in[j] & 0xff;
+					v = DEC_CD[c];
+					if (v < 64) {
+						chars[charsLen++] = (byte) c;
+					} else if (c == REMAINDER_ENC) {
+						// 終端文字以降は読み込まない.
+						eof = true;
+						break;
+					} else if (c != '\r' && c != '\n' && c != ' ' && c != '\t') {
+						throw new IOException("Illegal base64 character: " + c);
+					}
+				}
+				// 4文字単位でデコード.
+				n = charsLen & ~3;
+				if (n > 0) {
+					outLen = decodeQuads(chars, 0, n, out, 0);
+					charsLen -= n;
+					System.arraycopy(chars, n, chars, 0, charsLen);
+				}
+				// 終端の余り文字をデコード.
+				if (eof && charsLen > 0) {
+					if (charsLen == 1) {
+						throw new IOException("Illegal base64 length.");
+					}
+					for (n = charsLen; n < 4; n++) {
+						chars[n] = ENC_CD[0];
+					}
+					decodeQuads(chars, 0, 4, out, outLen);
+					outLen += charsLen - 1;
+					charsLen = 0;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * クローズ処理.
+		 * 
+		 * @exception IOException 例外.
+		 */
+		@Override
+		public void close() throws IOException {
+			if (i != null) {
+				try {
+					i.close();
+				} finally {
+					i = null;
+				}
+			}
+		}
+	}
 }
@@ -284,6 +284,57 @@ public final class ByteArrayIO extends OutputStream {
 		return useLength;
 	}
 
+	/**
+	 * 書き込み済みの指定位置のデータを更新.
+	 * 
+	 * @param index
+	 *            対象の位置を設定します.
+	 * @param b
+	 *            対象のバイナリ情報を設定します.
+	 */
+	public void set(int index, int b) {
+		if (index < 0 || index >= useLength) {
+			throw new IndexOutOfBoundsException("Specified position is out of range: " + index);
+		}
+		BByteLinked n = first;
+		index += position;
+		while (index >= maxBuffer) {
+			index -= maxBuffer;
+			n = n.next;
+		}
+		n.value[index] = (byte) b;
+	}
+
+	/**
+	 * 書き込み済みの複数の位置に4バイトの数値(リトルエンディアン)を設定.
+	 *
+	 * @param index
+	 *            対象の位置群を昇順で設定します.
+	 * @param value
+	 *            対象の数値群を設定します.
+	 * @param len
+	 *            対象の件数を設定します.
+	 */
+	public void setInt(int[] index, int[] value, int len) {
+		BByteLinked n = first;
+		int base = -position, p, v;
+		for (int i = 0; i < len; i++) {
+			p = index[i];
+			if (p < 0 || p + 4 > useLength || (i > 0 && p < index[i - 1])) {
+				throw new IndexOutOfBoundsException("Specified position is out of range: " + p);
+			}
+			v = value[i];
+			for (int j = 0; j < 4; j++, p++, v >>= 8) {
+				// 前回の位置から順に探索.
+				while (p - base >= maxBuffer) {
+					base += maxBuffer;
+					n = n.next;
+				}
+				n.value[p - base] = (byte) v;
+			}
+		}
+	}
+
 	/**
 	 * クローズ処理が行われている場合.
 	 * 
@@ -0,0 +1,110 @@
+package objectpack;
+
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 正規化エンコード(SerializableCore.MODE_CANONICAL)での Map のキー、Set の要素の並び順.
+ *
+ * null を先頭に、String、数値・日時・UUID・Enum 等の JDK の比較可能な値(スカラー値)、それ以外の値の順に並べます.
+ * スカラー値は、異なるクラスの値はクラス名順、同じクラスの値は String はコードポイント順、それ以外は自然順序.
+ * Map、List、配列、Set、フィールド単位変換オブジェクト等のそれ以外の値は、実装クラスに関わらず
+ * MODE_CANONICAL でエンコードしたバイナリの符号なしのバイト順とし、等しい値が同じ位置に並ぶようにします.
+ */
+final class CanonicalOrder implements Comparator<Object> {
+
+	/** 自然順序で比較するクラス. **/
+	private static final Set<Class<?>> NATURAL = new HashSet<Class<?>>(Arrays.asList(Integer.class, Long.class,
+			Short.class, Byte.class, Character.class, Boolean.class, Double.class, Float.class, BigInteger.class,
+			UUID.class, java.util.Date.class, java.sql.Date.class, java.sql.Time.class, java.sql.Timestamp.class,
+			Instant.class, LocalDate.class, LocalDateTime.class, LocalTime.class));
+
+	/** 並べ替え中の値のエンコード結果. **/
+	private Map<Object, byte[]> encoded;
+
+	private CanonicalOrder() {
+	}
+
+	/**
+	 * 値群を正規化した順序に並べ替え.
+	 *
+	 * @param v 対象の値群を設定します.
+	 * @return Object[] 並べ替えた値群(引数と同じ配列)が返却されます.
+	 */
+	static final Object[] sort(Object[] v) {
+		if (v.length > 1) {
+			Arrays.sort(v, new CanonicalOrder());
+		}
+		return v;
+	}
+
+	@Override
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public int compare(Object a, Object b) {
+		if (a == b) {
+			return 0;
+		} else if (a == null) {
+			return -1;
+		} else if (b == null) {
+			return 1;
+		}
+		final Class<?> ca = a.getClass();
+		final Class<?> cb = b.getClass();
+		final boolean sa = scalar(a), sb = scalar(b);
+		if (sa != sb) {
+			return sa ? -1 : 1;
+		} else if (sa) {
+			if (ca != cb) {
+				return IndexedArray.compare(ca.getName(), cb.getName());
+			} else if (ca == String.class) {
+				return IndexedArray.compare((String) a, (String) b);
+			}
+			return ((Comparable) a).compareTo(b);
+		}
+		// それ以外は実装クラスに関わらず、正規化したバイナリで比較.
+		final byte[] x = encode(a);
+		final byte[] y = encode(b);
+		final int len = Math.min(x.length, y.length);
+		int c;
+		for (int i = 0; i < len; i++) {
+			if ((c = (x[i] & 0xff) - (y[i] & 0xff)) != 0) {
+				return c;
+			}
+		}
+		return x.length - y.length;
+	}
+
+	// 自然順序で比較する値(String、JDK の比較可能な値、Enum)の場合は[true].
+	private static final boolean scalar(Object v) {
+		return v instanceof String || v instanceof Enum || NATURAL.contains(v.getClass());
+	}
+
+	// 正規化したバイナリを取得.
+	private final byte[] encode(Object v) {
+		if (encoded == null) {
+			encoded = new IdentityHashMap<Object, byte[]>();
+		}
+		byte[] ret = encoded.get(v);
+		if (ret == null) {
+			try {
+				ret = SerializableCore.encode(v, SerializableCore.MODE_CANONICAL);
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+			encoded.put(v, ret);
+		}
+		return ret;
+	}
+}
@@ -0,0 +1,188 @@
+package objectpack;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * 列単位で復元された List&lt;Map&gt;.
+ *
+ * SerializableCore の列形式(タイプ54)をデコードした結果で、列データのみを保持し、
+ * 各行の Map は最初に参照された時点で生成します.
+ * 変更操作が行われた場合は、全行を生成して通常のリストとして扱います.
+ */
+final class ColumnarList extends AbstractList<Object> implements RandomAccess {
+
+	/** 列型: オブジェクト. **/
+	static final int KIND_OBJECT = 0;
+	/** 列型: String. **/
+	static final int KIND_STRING = 1;
+	/** 列型: Integer. **/
+	static final int KIND_INT = 2;
+	/** 列型: Long. **/
+	static final int KIND_LONG = 3;
+	/** 列型: Double. **/
+	static final int KIND_DOUBLE = 4;
+	/** 列型: Boolean. **/
+	static final int KIND_BOOLEAN = 5;
+	/** 列型: 辞書変換(出力時のみ. 復元後はオブジェクト列として保持). **/
+	static final int KIND_DICTIONARY = 6;
+
+	/** キー名. **/
+	private final String[] keys;
+
+	/** 列型. **/
+	private final int[] kinds;
+
+	/** 列データ(int[], long[], double[], boolean[], Object[]). **/
+	private final Object[] columns;
+
+	/** 行数. **/
+	private final int rows;
+
+	/** 行を FrozenMap で生成する場合は[true]. **/
+	private final boolean frozen;
+
+	/** 生成済みの行. **/
+	private Object[] cache;
+
+	/** 変更操作後のリスト. **/
+	private ArrayList<Object> list;
+
+	/**
+	 * コンストラクタ.
+	 *
+	 * @param keys    キー名を設定します.
+	 * @param kinds   列型を設定します.
+	 * @param columns 列データを設定します.
+	 * @param rows    行数を設定します.
+	 * @param frozen  行を FrozenMap で生成する場合は[true]を設定します.
+	 */
+	ColumnarList(String[] keys, int[] kinds, Object[] columns, int rows, boolean frozen) {
+		this.keys = keys;
+		this.kinds = kinds;
+		this.columns = columns;
+		this.rows = rows;
+		this.frozen = frozen;
+		this.cache = new Object[rows];
+	}
+
+	/**
+	 * 列型を判別.
+	 *
+	 * @param column 列の値群を設定します.
+	 * @return int 列型が返却されます.
+	 */
+	static final int kind(Object[] column) {
+		final int len = column.length;
+		final Object first = column[0];
+		if (first == null) {
+			return KIND_OBJECT;
+		}
+		final Class<?> c = first.getClass();
+		for (int i = 1; i < len; i++) {
+			if (column[i] == null || column[i].getClass() != c) {
+				return KIND_OBJECT;
+			}
+		}
+		if (c == String.class) {
+			return KIND_STRING;
+		} else if (c == Integer.class) {
+			return KIND_INT;
+		} else if (c == Long.class) {
+			return KIND_LONG;
+		} else if (c == Double.class) {
+			return KIND_DOUBLE;
+		} else if (c == Boolean.class) {
+			return KIND_BOOLEAN;
+		}
+		return KIND_OBJECT;
+	}
+
+	@Override
+	public Object get(int index) {
+		if (list != null) {
+			return list.get(index);
+		}
+		if (index < 0 || index >= rows) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + rows);
+		}
+		Object ret = cache[index];
+		if (ret == null) {
+			ret = row(index);
+			cache[index] = ret;
+		}
+		return ret;
+	}
+
+	@Override
+	public int size() {
+		return list != null ? list.size() : rows;
+	}
+
+	@Override
+	public Object set(int index, Object element) {
+		return materialize().set(index, element);
+	}
+
+	@Override
+	public void add(int index, Object element) {
+		materialize().add(index, element);
+		modCount++;
+	}
+
+	@Override
+	public Object remove(int index) {
+		final Object ret = materialize().remove(index);
+		modCount++;
+		return ret;
+	}
+
+	@Override
+	public void clear() {
+		materialize().clear();
+		modCount++;
+	}
+
+	// 全行を生成して、変更可能なリストに切り替え.
+	private final ArrayList<Object> materialize() {
+		if (list == null) {
+			final ArrayList<Object> ret = new ArrayList<Object>(rows);
+			for (int i = 0; i < rows; i++) {
+				ret.add(get(i));
+			}
+			list = ret;
+			cache = null;
+		}
+		return list;
+	}
+
+	// 行のMapを生成.
+	private final Map<Object, Object> row(int index) {
+		final int len = keys.length;
+		final Map<Object, Object> ret = SerializableCore.newMap(len);
+		Object v;
+		for (int i = 0; i < len; i++) {
+			switch (kinds[i]) {
+			case KIND_INT:
+				v = ((int[]) columns[i])[index];
+				break;
+			case KIND_LONG:
+				v = ((long[]) columns[i])[index];
+				break;
+			case KIND_DOUBLE:
+				v = ((double[]) columns[i])[index];
+				break;
+			case KIND_BOOLEAN:
+				v = ((boolean[]) columns[i])[index];
+				break;
+			default:
+				v = ((Object[]) columns[i])[index];
+				break;
+			}
+			ret.put(keys[i], v);
+		}
+		return frozen ? new FrozenMap<Object, Object>(ret) : ret;
+	}
+}
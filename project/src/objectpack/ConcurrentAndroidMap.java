@@ -0,0 +1,399 @@
+package objectpack;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 読み込み中心の並行アクセス用の AndroidMap.
+ *
+ * AndroidMap と同じくハッシュ値の昇順に並べた int 配列と、キーと値を交互に並べた Object 配列で
+ * 要素を保持します. 配列は書き込みの度に要素数ちょうどの新しい配列を作成して差し替える(コピーオンライト)ため、
+ * 読み込みはロックを取得せず、その時点の配列に対して二分探索で検索します.
+ * 書き込みはインスタンス毎のロックで直列化されます.
+ *
+ * 共有する設定情報のような、読み込みが多く書き込みが少ない用途に向いています.
+ * デコードした Map を共有する場合は、コンストラクタに渡して一括で変換してください.
+ * ConcurrentHashMap と同じく、キーと値に null は利用できません.
+ * 反復子は作成時点の内容を参照し、ConcurrentModificationException は発生しません.
+ */
+@SuppressWarnings("unchecked")
+public final class ConcurrentAndroidMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+
+	/** 空の内容. **/
+	private static final Snapshot EMPTY = new Snapshot(new int[0], new Object[0]);
+
+	/** 現在の内容. **/
+	private volatile Snapshot snapshot = EMPTY;
+
+	/** 書き込み用のロック. **/
+	private final Object lock = new Object();
+
+	/** エントリセット. **/
+	private Set<Map.Entry<K, V>> entrySet;
+
+	/**
+	 * コンストラクタ.
+	 */
+	public ConcurrentAndroidMap() {
+	}
+
+	/**
+	 * コンストラクタ.
+	 *
+	 * @param map 初期の要素を設定します.
+	 */
+	public ConcurrentAndroidMap(Map<? extends K, ? extends V> map) {
+		putAll(map);
+	}
+
+	@Override
+	public int size() {
+		return snapshot.hashes.length;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return snapshot.hashes.length == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return snapshot.indexOf(key, key.hashCode()) >= 0;
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		if (value == null) {
+			throw new NullPointerException();
+		}
+		final Object[] array = snapshot.array;
+		for (int i = 1; i < array.length; i += 2) {
+			if (value.equals(array[i])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public V get(Object key) {
+		final Snapshot s = snapshot;
+		final int index = s.indexOf(key, key.hashCode());
+		return index < 0 ? null : (V) s.array[(index << 1) + 1];
+	}
+
+	@Override
+	public V put(K key, V value) {
+		return put(key, value, false);
+	}
+
+	@Override
+	public V putIfAbsent(K key, V value) {
+		return put(key, value, true);
+	}
+
+	@Override
+	public void putAll(Map<? extends K, ? extends V> map) {
+		final int len = map.size();
+		if (len == 0) {
+			return;
+		}
+		// 追加する要素をハッシュ値の順に並べる.
+		final Object[] add = new Object[len << 1];
+		final int[] addHashes = new int[len];
+		final long[] order = new long[len];
+		int n = 0;
+		for (Map.Entry<? extends K, ? extends V> e : map.entrySet()) {
+			if (n == len) {
+				throw new IllegalArgumentException("Map size changed during putAll");
+			}
+			add[n << 1] = check(e.getKey());
+			add[(n << 1) + 1] = check(e.getValue());
+			addHashes[n] = e.getKey().hashCode();
+			order[n] = ((long) addHashes[n] << 32) | n;
+			n++;
+		}
+		Arrays.sort(order, 0, n);
+		synchronized (lock) {
+			final Snapshot s = snapshot;
+			final Object[] array = s.array.clone();
+			final boolean[] exists = new boolean[n];
+			int index, count = 0;
+			for (int i = 0; i < n; i++) {
+				if ((index = s.indexOf(add[i << 1], addHashes[i])) >= 0) {
+					array[(index << 1) + 1] = add[(i << 1) + 1];
+					exists[i] = true;
+				} else {
+					count++;
+				}
+			}
+			if (count == 0) {
+				snapshot = new Snapshot(s.hashes, array);
+				return;
+			}
+			// 既存の要素と追加する要素をハッシュ値の順にマージ.
+			final int[] oh = s.hashes;
+			final int olen = oh.length;
+			final int[] hashes = new int[olen + count];
+			final Object[] merged = new Object[hashes.length << 1];
+			int i = 0, j = 0, k = 0, a;
+			while (i < olen || j < n) {
+				if (j < n && exists[(int) order[j]]) {
+					j++;
+					continue;
+				}
+				if (j >= n || (i < olen && oh[i] <= (int) (order[j] >> 32))) {
+					hashes[k] = oh[i];
+					merged[k << 1] = array[i << 1];
+					merged[(k << 1) + 1] = array[(i << 1) + 1];
+					i++;
+				} else {
+					a = (int) order[j++];
+					hashes[k] = addHashes[a];
+					merged[k << 1] = add[a << 1];
+					merged[(k << 1) + 1] = add[(a << 1) + 1];
+				}
+				k++;
+			}
+			snapshot = new Snapshot(hashes, merged);
+		}
+	}
+
+	@Override
+	public V remove(Object key) {
+		return remove(key, null, false);
+	}
+
+	@Override
+	public boolean remove(Object key, Object value) {
+		if (value == null) {
+			return false;
+		}
+		return remove(key, value, true) != null;
+	}
+
+	@Override
+	public boolean replace(K key, V oldValue, V newValue) {
+		check(oldValue);
+		check(newValue);
+		synchronized (lock) {
+			final Snapshot s = snapshot;
+			final int index = s.indexOf(key, key.hashCode());
+			if (index < 0 || !oldValue.equals(s.array[(index << 1) + 1])) {
+				return false;
+			}
+			snapshot = s.set(index, newValue);
+			return true;
+		}
+	}
+
+	@Override
+	public V replace(K key, V value) {
+		check(value);
+		synchronized (lock) {
+			final Snapshot s = snapshot;
+			final int index = s.indexOf(key, key.hashCode());
+			if (index < 0) {
+				return null;
+			}
+			final V ret = (V) s.array[(index << 1) + 1];
+			snapshot = s.set(index, value);
+			return ret;
+		}
+	}
+
+	@Override
+	public void clear() {
+		synchronized (lock) {
+			snapshot = EMPTY;
+		}
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new AbstractSet<Map.Entry<K, V>>() {
+				@Override
+				public Iterator<Map.Entry<K, V>> iterator() {
+					return new EntryIterator(snapshot);
+				}
+
+				@Override
+				public int size() {
+					return ConcurrentAndroidMap.this.size();
+				}
+
+				@Override
+				public void clear() {
+					ConcurrentAndroidMap.this.clear();
+				}
+			};
+		}
+		return entrySet;
+	}
+
+	// 要素を追加.
+	private final V put(K key, V value, boolean absent) {
+		check(value);
+		final int hash = check(key).hashCode();
+		synchronized (lock) {
+			final Snapshot s = snapshot;
+			int index = s.indexOf(key, hash);
+			if (index >= 0) {
+				final V ret = (V) s.array[(index << 1) + 1];
+				if (!absent && ret != value) {
+					snapshot = s.set(index, value);
+				}
+				return ret;
+			}
+			index = ~index;
+			final int len = s.hashes.length;
+			final int[] hashes = new int[len + 1];
+			final Object[] array = new Object[(len + 1) << 1];
+			System.arraycopy(s.hashes, 0, hashes, 0, index);
+			System.arraycopy(s.array, 0, array, 0, index << 1);
+			System.arraycopy(s.hashes, index, hashes, index + 1, len - index);
+			System.arraycopy(s.array, index << 1, array, (index + 1) << 1, (len - index) << 1);
+			hashes[index] = hash;
+			array[index << 1] = key;
+			array[(index << 1) + 1] = value;
+			snapshot = new Snapshot(hashes, array);
+			return null;
+		}
+	}
+
+	// 要素を削除(value が指定された場合は値が一致する場合のみ).
+	private final V remove(Object key, Object value, boolean match) {
+		final int hash = key.hashCode();
+		synchronized (lock) {
+			final Snapshot s = snapshot;
+			final int index = s.indexOf(key, hash);
+			if (index < 0) {
+				return null;
+			}
+			final V ret = (V) s.array[(index << 1) + 1];
+			if (match && !value.equals(ret)) {
+				return null;
+			}
+			final int len = s.hashes.length - 1;
+			if (len == 0) {
+				snapshot = EMPTY;
+				return ret;
+			}
+			final int[] hashes = new int[len];
+			final Object[] array = new Object[len << 1];
+			System.arraycopy(s.hashes, 0, hashes, 0, index);
+			System.arraycopy(s.array, 0, array, 0, index << 1);
+			System.arraycopy(s.hashes, index + 1, hashes, index, len - index);
+			System.arraycopy(s.array, (index + 1) << 1, array, index << 1, (len - index) << 1);
+			snapshot = new Snapshot(hashes, array);
+			return ret;
+		}
+	}
+
+	// null チェック.
+	private static final <T> T check(T o) {
+		if (o == null) {
+			throw new NullPointerException();
+		}
+		return o;
+	}
+
+	// 変更されない内容.
+	private static final class Snapshot {
+		final int[] hashes;
+		final Object[] array;
+
+		Snapshot(int[] hashes, Object[] array) {
+			this.hashes = hashes;
+			this.array = array;
+		}
+
+		// キーの位置を取得(存在しない場合は挿入位置の補数).
+		final int indexOf(Object key, int hash) {
+			final int len = hashes.length;
+			final int index = Arrays.binarySearch(hashes, 0, len, hash);
+			if (index < 0) {
+				return index;
+			} else if (key.equals(array[index << 1])) {
+				return index;
+			}
+			// 同じハッシュ値の前後を検索.
+			int end;
+			for (end = index + 1; end < len && hashes[end] == hash; end++) {
+				if (key.equals(array[end << 1])) {
+					return end;
+				}
+			}
+			for (int i = index - 1; i >= 0 && hashes[i] == hash; i--) {
+				if (key.equals(array[i << 1])) {
+					return i;
+				}
+			}
+			return ~end;
+		}
+
+		// 値を差し替えた内容を作成.
+		final Snapshot set(int index, Object value) {
+			final Object[] a = array.clone();
+			a[(index << 1) + 1] = value;
+			return new Snapshot(hashes, a);
+		}
+	}
+
+	// 作成時点の内容の反復子.
+	private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+		private final Object[] array;
+		private int next;
+		private int last = -1;
+
+		EntryIterator(Snapshot s) {
+			this.array = s.array;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next < array.length;
+		}
+
+		@Override
+		public Map.Entry<K, V> next() {
+			if (next >= array.length) {
+				throw new NoSuchElementException();
+			}
+			last = next;
+			next += 2;
+			return new Entry((K) array[last], (V) array[last + 1]);
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) {
+				throw new IllegalStateException();
+			}
+			ConcurrentAndroidMap.this.remove(array[last], array[last + 1]);
+			last = -1;
+		}
+	}
+
+	// 値の変更を Map に反映するエントリ.
+	private final class Entry extends AbstractMap.SimpleEntry<K, V> {
+		private static final long serialVersionUID = 1L;
+
+		Entry(K key, V value) {
+			super(key, value);
+		}
+
+		@Override
+		public V setValue(V value) {
+			put(getKey(), value);
+			return super.setValue(value);
+		}
+	}
+}
@@ -0,0 +1,237 @@
+package objectpack;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 種類の少ない値群の辞書変換.
+ *
+ * String配列や、ステータスコード・Enum などの同じ値が繰り返される配列やリストを、
+ * 値の辞書と、辞書番号のビットパックデータで出力します.
+ * 対象となる値は null、String、Boolean、Character、数値のボックス型、Enum のみで、
+ * 要素数に対して値の種類が少ない場合のみ利用されます.
+ *
+ * フォーマット: [長さ(byte4)][辞書数(byte4)][辞書][ビット数(byte1)][パックデータ].
+ */
+final class DictionaryArray {
+	private DictionaryArray() {
+	}
+
+	/** 辞書変換を行う最小の要素数. **/
+	static final int MIN_LENGTH = 16;
+
+	/** 要素数に対する値の種類の上限割合(要素数 / RATIO). **/
+	private static final int RATIO = 4;
+
+	/**
+	 * 辞書を生成.
+	 *
+	 * @param v   対象の値群を設定します.
+	 * @param len 対象の要素数を設定します.
+	 * @param idx 各要素の辞書番号を格納する配列を設定します.
+	 * @return Object[] 辞書が返却されます. 辞書変換の対象外の場合は[null]が返却されます.
+	 */
+	static final Object[] dictionary(Object[] v, int len, int[] idx) {
+		if (len < MIN_LENGTH) {
+			return null;
+		}
+		final int limit = len / RATIO;
+		final Map<Object, Integer> map = new HashMap<Object, Integer>();
+		final Object[] dict = new Object[limit];
+		Integer n;
+		Object x;
+		for (int i = 0; i < len; i++) {
+			x = v[i];
+			if ((n = map.get(x)) == null) {
+				if (map.size() >= limit || !scalar(x)) {
+					return null;
+				}
+				n = map.size();
+				map.put(x, n);
+				dict[n] = x;
+			}
+			idx[i] = n;
+		}
+		final Object[] ret = new Object[map.size()];
+		System.arraycopy(dict, 0, ret, 0, ret.length);
+		return ret;
+	}
+
+	/**
+	 * String配列を辞書変換で出力.
+	 *
+	 * @param strSeqMap 文字列のシーケンス番号付与用のオブジェクトを設定します.
+	 * @param buf       対象のバッファを設定します.
+	 * @param v         対象の配列を設定します.
+	 * @return boolean [true]の場合、出力されました.
+	 * @exception Exception 例外.
+	 */
+	static final boolean encode(Map<String, Integer> strSeqMap, OutputStream buf, String[] v) throws Exception {
+		final int len = v.length;
+		if (len < MIN_LENGTH) {
+			return false;
+		}
+		final int[] idx = new int[len];
+		final Object[] dict = dictionary(v, len, idx);
+		if (dict == null) {
+			return false;
+		}
+		SerializableCore.head(buf, 39); // 辞書変換されたString配列.
+		SerializableCore.byte4(buf, len);
+		SerializableCore.byte4(buf, dict.length);
+		// 辞書は文字列のシーケンス番号+1で出力(0はnull).
+		for (int i = 0; i < dict.length; i++) {
+			if (dict[i] == null) {
+				SerializableCore.byte4(buf, 0);
+				continue;
+			}
+			SerializableCore.byte4(buf, SerializableCore.stringCode(strSeqMap, (String) dict[i]) + 1);
+		}
+		writeIndex(buf, idx, len, dict.length);
+		return true;
+	}
+
+	/**
+	 * Object配列、Listを辞書変換で出力.
+	 *
+	 * @param ctx  エンコード処理中の情報を設定します.
+	 * @param buf  対象のバッファを設定します.
+	 * @param v    対象の値群を設定します.
+	 * @param list [true]の場合、Listとして復元します.
+	 * @return boolean [true]の場合、出力されました.
+	 * @exception Exception 例外.
+	 */
+	static final boolean encode(SerializableCore.EncodeContext ctx, OutputStream buf, Object[] v, boolean list)
+			throws Exception {
+		// 同一性を保持する場合と拡張変換処理が設定されている場合は対象外.
+		if (v.length < MIN_LENGTH || ctx.reference != null || SerializableCore.originCode() != null) {
+			return false;
+		}
+		final int len = v.length;
+		final int[] idx = new int[len];
+		final Object[] dict = dictionary(v, len, idx);
+		if (dict == null) {
+			return false;
+		}
+		SerializableCore.head(buf, 40); // 辞書変換されたObject配列、List.
+		SerializableCore.byte1(buf, list ? 1 : 0);
+		write(ctx, buf, dict, idx, len);
+		return true;
+	}
+
+	/**
+	 * 辞書と辞書番号を出力.
+	 *
+	 * @param ctx  エンコード処理中の情報を設定します.
+	 * @param buf  対象のバッファを設定します.
+	 * @param dict 辞書を設定します.
+	 * @param idx  各要素の辞書番号を設定します.
+	 * @param len  要素数を設定します.
+	 * @exception Exception 例外.
+	 */
+	static final void write(SerializableCore.EncodeContext ctx, OutputStream buf, Object[] dict, int[] idx, int len)
+			throws Exception {
+		SerializableCore.byte4(buf, len);
+		SerializableCore.byte4(buf, dict.length);
+		for (int i = 0; i < dict.length; i++) {
+			SerializableCore.encodeObject(ctx, buf, dict[i]);
+		}
+		writeIndex(buf, idx, len, dict.length);
+	}
+
+	/**
+	 * 辞書変換されたString配列を復元.
+	 *
+	 * @param stringMap シーケンス番号の文字列変換用情報を設定します.
+	 * @param pos       対象のポジションを設定します.
+	 * @param b         対象のバイナリを設定します.
+	 * @return String[] 復元された配列が返却されます.
+	 */
+	static final String[] decode(String[] stringMap, int[] pos, byte[] b) {
+		final int len = SerializableCore.byte4Int(b, pos);
+		final String[] dict = new String[SerializableCore.byte4Int(b, pos)];
+		int n;
+		for (int i = 0; i < dict.length; i++) {
+			n = SerializableCore.byte4Int(b, pos);
+			dict[i] = n == 0 ? null : stringMap[n - 1];
+		}
+		final String[] ret = new String[len];
+		readIndex(pos, b, dict, ret, len);
+		return ret;
+	}
+
+	/**
+	 * 辞書変換されたObject配列、Listを復元.
+	 *
+	 * @param ctx    デコード処理中の情報を設定します.
+	 * @param pos    対象のポジションを設定します.
+	 * @param b      対象のバイナリを設定します.
+	 * @param length 対象の長さを設定します.
+	 * @return Object 復元された配列、またはListが返却されます.
+	 * @exception Exception 例外.
+	 */
+	static final Object decode(SerializableCore.DecodeContext ctx, int[] pos, byte[] b, int length)
+			throws Exception {
+		final boolean list = SerializableCore.byte1Int(b, pos) == 1;
+		final Object[] ret = read(ctx, pos, b, length);
+		if (list) {
+			final List<Object> lst = new ArrayList<Object>(ret.length);
+			for (int i = 0; i < ret.length; i++) {
+				lst.add(ret[i]);
+			}
+			return lst;
+		}
+		return ret;
+	}
+
+	/**
+	 * 辞書と辞書番号から値群を復元.
+	 *
+	 * @param ctx    デコード処理中の情報を設定します.
+	 * @param pos    対象のポジションを設定します.
+	 * @param b      対象のバイナリを設定します.
+	 * @param length 対象の長さを設定します.
+	 * @return Object[] 復元された値群が返却されます.
+	 * @exception Exception 例外.
+	 */
+	static final Object[] read(SerializableCore.DecodeContext ctx, int[] pos, byte[] b, int length)
+			throws Exception {
+		final int len = SerializableCore.byte4Int(b, pos);
+		final Object[] dict = new Object[SerializableCore.byte4Int(b, pos)];
+		for (int i = 0; i < dict.length; i++) {
+			dict[i] = SerializableCore.decodeObject(ctx, pos, b, length);
+		}
+		final Object[] ret = new Object[len];
+		readIndex(pos, b, dict, ret, len);
+		return ret;
+	}
+
+	// 辞書番号をビットパックで出力.
+	private static final void writeIndex(OutputStream buf, int[] idx, int len, int size) throws Exception {
+		final int bits = PackedArray.bits(size - 1);
+		SerializableCore.byte1(buf, bits);
+		PackedArray.pack(buf, idx, len, bits);
+	}
+
+	// ビットパックされた辞書番号から値をまとめて復元.
+	private static final void readIndex(int[] pos, byte[] b, Object[] dict, Object[] out, int len) {
+		final int bits = SerializableCore.byte1Int(b, pos);
+		final long mask = (1L << bits) - 1L;
+		final int safe = b.length - 8;
+		long bp = (long) pos[0] << 3L;
+		for (int i = 0; i < len; i++, bp += bits) {
+			out[i] = dict[(int) PackedArray.word(b, bp, safe, bits, mask)];
+		}
+		pos[0] += PackedArray.bytes(len, bits);
+	}
+
+	// 辞書変換の対象となる値.
+	private static final boolean scalar(Object x) {
+		return x == null || x instanceof String || x instanceof Integer || x instanceof Long
+				|| x instanceof Boolean || x instanceof Enum || x instanceof Short || x instanceof Byte
+				|| x instanceof Character || x instanceof Double || x instanceof Float;
+	}
+}
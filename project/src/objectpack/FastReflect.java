@@ -1,5 +1,10 @@
 package objectpack;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
@@ -15,6 +20,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 /**
  * 高速リフレクション.
@@ -1225,6 +1231,9 @@ public class FastReflect {
 	// クラスファクトリ.
 	private static final ClassElementFactory FACTORY = new ClassElementFactory();
 
+	// 引数なしコンストラクタ生成処理のキャッシュ.
+	private static final Map<String, Supplier<Object>> INSTANCE_FACTORY = new ConcurrentHashMap<String, Supplier<Object>>();
+
 	// オブジェクト名.
 	private static final String OBJECT_NAME = Object.class.getName();
 
@@ -1233,6 +1242,7 @@ public class FastReflect {
 	 */
 	public static final void clearCacheAll() {
 		FACTORY.cacheClass.clear();
+		INSTANCE_FACTORY.clear();
 	}
 
 	/**
@@ -1242,6 +1252,7 @@ public class FastReflect {
 	 */
 	public static final void clearCache(String name) {
 		FACTORY.cacheClass.remove(name);
+		INSTANCE_FACTORY.remove(name);
 	}
 
 	/**
@@ -1379,6 +1390,82 @@ public class FastReflect {
 		}
 	}
 
+	/**
+	 * 引数なしコンストラクタの生成処理を取得.
+	 * 
+	 * @param name 対象のクラス名を設定します.
+	 * @return Supplier<Object> オブジェクト生成処理が返されます.
+	 */
+	public static final Supplier<Object> getInstanceFactory(String name) {
+		return getInstanceFactory(null, name);
+	}
+
+	/**
+	 * 引数なしコンストラクタの生成処理を取得.
+	 * 
+	 * 生成処理はクラス名単位でキャッシュされ、publicなクラスとコンストラクタの場合は
+	 * LambdaMetafactory で生成した Supplier、それ以外はリフレクションでの生成を返却します.
+	 * 
+	 * @param loader 対象のクラスローダーを設定します.
+	 * @param name   対象のクラス名を設定します.
+	 * @return Supplier<Object> オブジェクト生成処理が返されます.
+	 */
+	public static final Supplier<Object> getInstanceFactory(ClassLoader loader, String name) {
+		Supplier<Object> ret = INSTANCE_FACTORY.get(name);
+		if (ret == null) {
+			ret = createInstanceFactory(loader, name);
+			INSTANCE_FACTORY.put(name, ret);
+		}
+		return ret;
+	}
+
+	// 引数なしコンストラクタの生成処理を作成.
+	@SuppressWarnings("unchecked")
+	private static final Supplier<Object> createInstanceFactory(final ClassLoader loader, final String name) {
+		final Class c = getClass(loader, name);
+		Constructor cons = null;
+		try {
+			if (Modifier.isPublic(c.getModifiers()) && !Modifier.isAbstract(c.getModifiers())) {
+				cons = c.getConstructor(Primitive.NO_PARAM_CLASS);
+			}
+		} catch (Exception e) {
+			cons = null;
+		}
+		if (cons != null) {
+			final MethodHandles.Lookup lookup = MethodHandles.lookup();
+			MethodHandle mh = null;
+			try {
+				mh = lookup.unreflectConstructor(cons);
+				final CallSite site = LambdaMetafactory.metafactory(lookup, "get",
+						MethodType.methodType(Supplier.class), MethodType.methodType(Object.class), mh,
+						MethodType.methodType(c));
+				return (Supplier<Object>) site.getTarget().invokeExact();
+			} catch (Throwable e) {
+				// 別クラスローダーのクラス等でラムダ生成できない場合は MethodHandle を直接利用.
+			}
+			if (mh != null) {
+				final MethodHandle target = mh.asType(MethodType.methodType(Object.class));
+				return new Supplier<Object>() {
+					public Object get() {
+						try {
+							return target.invokeExact();
+						} catch (RuntimeException e) {
+							throw e;
+						} catch (Throwable e) {
+							throw new FastReflectException(e);
+						}
+					}
+				};
+			}
+		}
+		// publicな引数なしコンストラクタが無い場合は従来の生成処理.
+		return new Supplier<Object>() {
+			public Object get() {
+				return newInstance(loader, name, (Object[]) null);
+			}
+		};
+	}
+
 	// クラス名を取得.
 	private static final String clazzName(final Object clazzObject, final Object target) {
 		if (clazzObject == null) {
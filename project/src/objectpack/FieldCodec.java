@@ -0,0 +1,745 @@
+package objectpack;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * フィールド単位のオブジェクト変換処理.
+ *
+ * クラス毎にフィールドのアクセス処理を MethodHandle で生成してキャッシュし、
+ * Object[] を経由せずにフィールドの型毎にバイナリ変換を行います.
+ * 通常のクラスとレコードに対応します.
+ */
+final class FieldCodec {
+
+	/** フィールド型: オブジェクト. **/
+	static final int KIND_OBJECT = 0;
+	/** フィールド型: boolean. **/
+	static final int KIND_BOOLEAN = 1;
+	/** フィールド型: byte. **/
+	static final int KIND_BYTE = 2;
+	/** フィールド型: char. **/
+	static final int KIND_CHAR = 3;
+	/** フィールド型: short. **/
+	static final int KIND_SHORT = 4;
+	/** フィールド型: int. **/
+	static final int KIND_INT = 5;
+	/** フィールド型: long. **/
+	static final int KIND_LONG = 6;
+	/** フィールド型: float. **/
+	static final int KIND_FLOAT = 7;
+	/** フィールド型: double. **/
+	static final int KIND_DOUBLE = 8;
+
+	/** 変換できないクラス. **/
+	private static final FieldCodec NONE = new FieldCodec();
+
+	/** クラス単位のキャッシュ. **/
+	private static final ClassValue<FieldCodec> CACHE = new ClassValue<FieldCodec>() {
+		@Override
+		protected FieldCodec computeValue(Class<?> c) {
+			try {
+				return new FieldCodec(c);
+			} catch (Exception e) {
+				return NONE;
+			}
+		}
+	};
+
+	/** 対象クラス. **/
+	final Class<?> clazz;
+
+	/** フィールドアクセス群. **/
+	final Accessor[] fields;
+
+	/** レコードの場合は[true]. **/
+	final boolean record;
+
+	/** 自動でフィールド変換するクラスの場合は[true]. **/
+	final boolean plain;
+
+	/** Serializable の場合は[true]. **/
+	final boolean serializable;
+
+	/** オブジェクト生成処理(レコードの場合はコンストラクタ引数を Object[] で受け取る). **/
+	private final MethodHandle constructor;
+
+	/** レコードのコンストラクタ引数の初期値. **/
+	private final Object[] defaults;
+
+	/** フィールド名単位のアクセス. **/
+	private final Map<String, Accessor> names;
+
+	/** ローカルクラスのフィールド構成そのままのフィールド定義. **/
+	final Descriptor local;
+
+	private FieldCodec() {
+		this.clazz = null;
+		this.fields = null;
+		this.record = false;
+		this.plain = false;
+		this.serializable = false;
+		this.constructor = null;
+		this.defaults = null;
+		this.names = null;
+		this.local = null;
+	}
+
+	private FieldCodec(Class<?> c) throws Exception {
+		final MethodHandles.Lookup lookup = MethodHandles.lookup();
+		this.clazz = c;
+		this.record = c.isRecord();
+		this.serializable = Serializable.class.isAssignableFrom(c);
+		if (record) {
+			// レコードはコンポーネント順.
+			final RecordComponent[] rc = c.getRecordComponents();
+			final int len = rc.length;
+			final Class<?>[] types = new Class<?>[len];
+			fields = new Accessor[len];
+			defaults = new Object[len];
+			Field f;
+			for (int i = 0; i < len; i++) {
+				types[i] = rc[i].getType();
+				f = c.getDeclaredField(rc[i].getName());
+				f.setAccessible(true);
+				fields[i] = accessor(lookup, f, i, false);
+				if (types[i].isPrimitive()) {
+					defaults[i] = Array.get(Array.newInstance(types[i], 1), 0);
+				}
+			}
+			final Constructor<?> cons = c.getDeclaredConstructor(types);
+			cons.setAccessible(true);
+			constructor = lookup.unreflectConstructor(cons).asSpreader(Object[].class, len)
+					.asType(MethodType.methodType(Object.class, Object[].class));
+		} else {
+			fields = fields(lookup, c);
+			defaults = null;
+			MethodHandle mh = null;
+			try {
+				final Constructor<?> cons = c.getDeclaredConstructor();
+				cons.setAccessible(true);
+				mh = lookup.unreflectConstructor(cons).asType(MethodType.methodType(Object.class));
+			} catch (Exception e) {
+				mh = null;
+			}
+			constructor = mh;
+		}
+		final Map<String, Accessor> m = new HashMap<String, Accessor>();
+		for (int i = 0; i < fields.length; i++) {
+			m.put(fields[i].name, fields[i]);
+		}
+		names = m;
+		final int[] kinds = new int[fields.length];
+		for (int i = 0; i < fields.length; i++) {
+			kinds[i] = fields[i].kind;
+		}
+		local = new Descriptor(this, kinds, fields);
+		plain = isPlain(c, record, constructor != null);
+	}
+
+	/**
+	 * SerializeObject.Codec が定義されたクラスの変換処理を取得.
+	 *
+	 * デコード時もこの処理で取得し、SerializeObject を実装して SerializeObject.Codec が定義された
+	 * クラス以外のフィールドは設定しません.
+	 *
+	 * @param c 対象のクラスを設定します.
+	 * @return FieldCodec 変換処理が返却されます. 対象外の場合は[null]が返却されます.
+	 */
+	static final FieldCodec serializeObject(Class<?> c) {
+		if (!SerializeObject.class.isAssignableFrom(c) || !c.isAnnotationPresent(SerializeObject.Codec.class)
+				|| c.isRecord()) {
+			return null;
+		}
+		return get(c);
+	}
+
+	/**
+	 * 自動でフィールド変換するクラスの変換処理を取得.
+	 *
+	 * レコードと、シリアライズ用の独自処理(writeObject等)を持たない通常のクラスが対象です.
+	 * Serializable ではない通常のクラスは、MODE_PLAIN_FIELDS を指定した場合のみ対象となります.
+	 *
+	 * @param c    対象のクラスを設定します.
+	 * @param mode エンコードモードを設定します.
+	 * @return FieldCodec 変換処理が返却されます. 対象外の場合は[null]が返却されます.
+	 */
+	static final FieldCodec plain(Class<?> c, int mode) {
+		final FieldCodec ret = CACHE.get(c);
+		if (!ret.plain || (ret.serializable && (mode & SerializableCore.MODE_JAVA_SERIALIZE) != 0)
+				|| (!ret.serializable && !ret.record && (mode & SerializableCore.MODE_PLAIN_FIELDS) == 0)) {
+			return null;
+		}
+		return ret;
+	}
+
+	/**
+	 * クラスの変換処理を取得.
+	 *
+	 * @param c 対象のクラスを設定します.
+	 * @return FieldCodec 変換処理が返却されます. フィールドにアクセスできない場合は[null]が返却されます.
+	 */
+	static final FieldCodec get(Class<?> c) {
+		final FieldCodec ret = CACHE.get(c);
+		return ret == NONE ? null : ret;
+	}
+
+	/**
+	 * フィールド名のアクセスを取得.
+	 *
+	 * @param name 対象のフィールド名を設定します.
+	 * @return Accessor フィールドのアクセスが返却されます. 存在しない場合は[null]が返却されます.
+	 */
+	final Accessor field(String name) {
+		return names.get(name);
+	}
+
+	/**
+	 * オブジェクトを生成.
+	 *
+	 * @return Object 生成されたオブジェクトが返却されます.
+	 * @exception Exception 例外.
+	 */
+	final Object newInstance() throws Exception {
+		if (constructor == null || record) {
+			throw new IOException("No-argument constructor of class '" + clazz.getName() + "' does not exist.");
+		}
+		try {
+			return (Object) constructor.invokeExact();
+		} catch (Exception | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new IOException(t);
+		}
+	}
+
+	/**
+	 * レコードのコンストラクタ引数(初期値)を生成.
+	 *
+	 * @return Object[] コンストラクタ引数が返却されます.
+	 */
+	final Object[] newArguments() {
+		return defaults.clone();
+	}
+
+	/**
+	 * レコードを生成.
+	 *
+	 * @param args コンストラクタ引数を設定します.
+	 * @return Object 生成されたレコードが返却されます.
+	 * @exception Exception 例外.
+	 */
+	final Object construct(Object[] args) throws Exception {
+		try {
+			return (Object) constructor.invokeExact(args);
+		} catch (Exception | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new IOException(t);
+		}
+	}
+
+	/**
+	 * フィールド定義をバイナリ変換.
+	 *
+	 * @param ctx エンコード処理中の情報を設定します.
+	 * @param buf 対象のバッファを設定します.
+	 * @exception Exception 例外.
+	 */
+	final void encodeDescriptor(SerializableCore.EncodeContext ctx, OutputStream buf) throws Exception {
+		final Accessor[] f = fields;
+		final int len = f.length;
+		SerializableCore.stringBinary(ctx.strSeqMap, buf, clazz.getName());
+		SerializableCore.byte4(buf, len);
+		for (int i = 0; i < len; i++) {
+			SerializableCore.stringBinary(ctx.strSeqMap, buf, f[i].name);
+			SerializableCore.byte1(buf, f[i].kind);
+		}
+	}
+
+	/**
+	 * フィールド定義を復元.
+	 *
+	 * エンコード時と同じく、自動でフィールド変換するクラス(レコードを含む)のみ復元できます.
+	 * Serializable ではない通常のクラスは、DECODE_PLAIN_FIELDS を指定した場合のみ復元できます.
+	 *
+	 * @param ctx デコード処理中の情報を設定します.
+	 * @param pos 対象のポジションを設定します.
+	 * @param b   対象のバイナリを設定します.
+	 * @return Descriptor フィールド定義が返却されます.
+	 * @exception Exception 例外(対象外のクラスの場合は IOException).
+	 */
+	static final Descriptor decodeDescriptor(SerializableCore.DecodeContext ctx, int[] pos, byte[] b)
+			throws Exception {
+		final String name = SerializableCore.byteString(ctx.stringMap, pos, b);
+		final int len = SerializableCore.byte4Int(b, pos);
+		final String[] fieldNames = new String[len];
+		final int[] kinds = new int[len];
+		for (int i = 0; i < len; i++) {
+			fieldNames[i] = SerializableCore.byteString(ctx.stringMap, pos, b);
+			kinds[i] = SerializableCore.byte1Int(b, pos);
+		}
+		final FieldCodec codec = get(FastReflect.getClass(name));
+		if (codec == null) {
+			throw new IOException("Fields of class '" + name + "' are not accessible.");
+		} else if (!codec.plain) {
+			// エンコード時と同じく、独自のシリアライズ処理を持つクラス等はフィールドを直接設定しない.
+			throw new IOException("Class '" + name + "' cannot be decoded by fields.");
+		} else if (!codec.serializable && !codec.record && !ctx.plainFields()) {
+			throw new IOException("Class '" + name + "' is not Serializable (requires DECODE_PLAIN_FIELDS).");
+		}
+		final Accessor[] target = new Accessor[len];
+		for (int i = 0; i < len; i++) {
+			target[i] = codec.names.get(fieldNames[i]);
+		}
+		return new Descriptor(codec, kinds, target);
+	}
+
+	/**
+	 * フィールド群をバイナリ変換.
+	 *
+	 * @param ctx エンコード処理中の情報を設定します.
+	 * @param buf 対象のバッファを設定します.
+	 * @param o   対象のオブジェクトを設定します.
+	 * @exception Exception 例外.
+	 */
+	final void encodeFields(SerializableCore.EncodeContext ctx, OutputStream buf, Object o) throws Exception {
+		final Accessor[] f = fields;
+		final int len = f.length;
+		try {
+			for (int i = 0; i < len; i++) {
+				f[i].encode(ctx, buf, o);
+			}
+		} catch (Exception | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new IOException(t);
+		}
+	}
+
+	/**
+	 * バイナリからフィールド群を復元.
+	 *
+	 * @param ctx    デコード処理中の情報を設定します.
+	 * @param pos    対象のポジションを設定します.
+	 * @param b      対象のバイナリを設定します.
+	 * @param length 対象の長さを設定します.
+	 * @param o      復元先のオブジェクトを設定します.
+	 * @exception Exception 例外.
+	 */
+	final void decodeFields(SerializableCore.DecodeContext ctx, int[] pos, byte[] b, int length, Object o)
+			throws Exception {
+		final Accessor[] f = fields;
+		final int len = f.length;
+		try {
+			for (int i = 0; i < len; i++) {
+				f[i].decode(ctx, pos, b, length, o);
+			}
+		} catch (Exception | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new IOException(t);
+		}
+	}
+
+	/**
+	 * 型毎の値を取得.
+	 */
+	static final Object read(int kind, SerializableCore.DecodeContext ctx, int[] pos, byte[] b, int length)
+			throws Exception {
+		switch (kind) {
+		case KIND_BOOLEAN:
+			return SerializableCore.byte1Int(b, pos) == 1;
+		case KIND_BYTE:
+			return (byte) SerializableCore.byte1Int(b, pos);
+		case KIND_CHAR:
+			return (char) SerializableCore.byte2Int(b, pos);
+		case KIND_SHORT:
+			return (short) SerializableCore.byte2Int(b, pos);
+		case KIND_INT:
+			return SerializableCore.byte4Int(b, pos);
+		case KIND_LONG:
+			return SerializableCore.byte8Long(b, pos);
+		case KIND_FLOAT:
+			return Float.intBitsToFloat(SerializableCore.byte4Int(b, pos));
+		case KIND_DOUBLE:
+			return Double.longBitsToDouble(SerializableCore.byte8Long(b, pos));
+		}
+		return SerializableCore.decodeObject(ctx, pos, b, length);
+	}
+
+	// 自動でフィールド変換するクラスかチェック.
+	private static final boolean isPlain(Class<?> c, boolean record, boolean constructor) {
+		if (record) {
+			return true;
+		}
+		final String name = c.getName();
+		if (!constructor || c.isEnum() || c.isArray() || c.isInterface() || Modifier.isAbstract(c.getModifiers())
+				|| c.isAnonymousClass() || c.isLocalClass() || c.isSynthetic() || c.isHidden()
+				|| (c.isMemberClass() && !Modifier.isStatic(c.getModifiers()))
+				|| Externalizable.class.isAssignableFrom(c) || name.startsWith("java.")
+				|| name.startsWith("javax.") || name.startsWith("jdk.") || name.startsWith("sun.")) {
+			return false;
+		}
+		// シリアライズ用の独自処理を持つ場合は対象外.
+		if (Serializable.class.isAssignableFrom(c)) {
+			while (c != null && c != Object.class) {
+				if (hasMethod(c, "writeObject") || hasMethod(c, "readObject") || hasMethod(c, "readObjectNoData")
+						|| hasMethod(c, "writeReplace") || hasMethod(c, "readResolve")) {
+					return false;
+				}
+				c = c.getSuperclass();
+			}
+		}
+		return true;
+	}
+
+	// 指定名のメソッドが定義されているかチェック.
+	private static final boolean hasMethod(Class<?> c, String name) {
+		final java.lang.reflect.Method[] list = c.getDeclaredMethods();
+		for (int i = 0; i < list.length; i++) {
+			if (name.equals(list[i].getName()) && !Modifier.isStatic(list[i].getModifiers())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// 対象クラスのフィールド群を取得.
+	// 親クラスから順に、同一クラス内はフィールド名順に並べます.
+	private static final Accessor[] fields(MethodHandles.Lookup lookup, Class<?> c) throws Exception {
+		final List<Class<?>> hierarchy = new ArrayList<Class<?>>();
+		while (c != null && c != Object.class) {
+			hierarchy.add(0, c);
+			c = c.getSuperclass();
+		}
+		final List<Accessor> ret = new ArrayList<Accessor>();
+		Field[] list;
+		int i, len, mod;
+		for (Class<?> h : hierarchy) {
+			list = h.getDeclaredFields();
+			Arrays.sort(list, new Comparator<Field>() {
+				public int compare(Field a, Field b) {
+					return a.getName().compareTo(b.getName());
+				}
+			});
+			len = list.length;
+			for (i = 0; i < len; i++) {
+				mod = list[i].getModifiers();
+				if (Modifier.isStatic(mod) || Modifier.isTransient(mod) || list[i].isSynthetic()) {
+					continue;
+				}
+				list[i].setAccessible(true);
+				ret.add(accessor(lookup, list[i], ret.size(), true));
+			}
+		}
+		return ret.toArray(new Accessor[ret.size()]);
+	}
+
+	// フィールドアクセスを生成.
+	private static final Accessor accessor(MethodHandles.Lookup lookup, Field f, int index, boolean set)
+			throws Exception {
+		final Class<?> t = f.getType();
+		final Class<?> v = t.isPrimitive() ? t : Object.class;
+		final String n = f.getName();
+		final MethodHandle getter = lookup.unreflectGetter(f).asType(MethodType.methodType(v, Object.class));
+		final MethodHandle setter = !set ? null
+				: lookup.unreflectSetter(f).asType(MethodType.methodType(void.class, Object.class, v));
+		if (t == Boolean.TYPE) {
+			return new BooleanField(n, KIND_BOOLEAN, index, getter, setter);
+		} else if (t == Byte.TYPE) {
+			return new ByteField(n, KIND_BYTE, index, getter, setter);
+		} else if (t == Character.TYPE) {
+			return new CharField(n, KIND_CHAR, index, getter, setter);
+		} else if (t == Short.TYPE) {
+			return new ShortField(n, KIND_SHORT, index, getter, setter);
+		} else if (t == Integer.TYPE) {
+			return new IntField(n, KIND_INT, index, getter, setter);
+		} else if (t == Long.TYPE) {
+			return new LongField(n, KIND_LONG, index, getter, setter);
+		} else if (t == Float.TYPE) {
+			return new FloatField(n, KIND_FLOAT, index, getter, setter);
+		} else if (t == Double.TYPE) {
+			return new DoubleField(n, KIND_DOUBLE, index, getter, setter);
+		}
+		return new ObjectField(n, KIND_OBJECT, index, getter, setter);
+	}
+
+	/**
+	 * バイナリに格納されたフィールド定義.
+	 *
+	 * 受信したフィールド名をローカルクラスのフィールドに対応付けるので、
+	 * フィールドの追加や削除があっても復元できます.
+	 */
+	static final class Descriptor {
+		/** ローカルクラスの変換処理. **/
+		final FieldCodec codec;
+
+		/** 受信フィールドの型. **/
+		final int[] kinds;
+
+		/** 受信フィールドに対応するローカルフィールド(存在しない場合はnull). **/
+		final Accessor[] target;
+
+		Descriptor(FieldCodec codec, int[] kinds, Accessor[] target) {
+			this.codec = codec;
+			this.kinds = kinds;
+			this.target = target;
+		}
+
+		/**
+		 * バイナリからオブジェクトを復元.
+		 *
+		 * @param ctx    デコード処理中の情報を設定します.
+		 * @param pos    対象のポジションを設定します.
+		 * @param b      対象のバイナリを設定します.
+		 * @param length 対象の長さを設定します.
+		 * @return Object 復元されたオブジェクトが返却されます.
+		 * @exception Exception 例外.
+		 */
+		final Object decode(SerializableCore.DecodeContext ctx, int[] pos, byte[] b, int length) throws Exception {
+			final int[] k = kinds;
+			final Accessor[] t = target;
+			final int len = k.length;
+			try {
+				if (codec.record) {
+					final int n = ctx.reserve();
+					final Object[] args = codec.newArguments();
+					Object v;
+					for (int i = 0; i < len; i++) {
+						v = read(k[i], ctx, pos, b, length);
+						if (t[i] != null) {
+							args[t[i].index] = v;
+						}
+					}
+					final Object ret = codec.construct(args);
+					ctx.resolve(n, ret);
+					return ret;
+				}
+				final Object ret = ctx.register(codec.newInstance());
+				for (int i = 0; i < len; i++) {
+					if (t[i] == null) {
+						read(k[i], ctx, pos, b, length);
+					} else if (t[i].kind == k[i]) {
+						t[i].decode(ctx, pos, b, length, ret);
+					} else {
+						t[i].set(ret, read(k[i], ctx, pos, b, length));
+					}
+				}
+				return ret;
+			} catch (Exception | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new IOException(e);
+			}
+		}
+	}
+
+	/**
+	 * フィールドアクセス.
+	 */
+	static abstract class Accessor {
+		/** フィールド名. **/
+		final String name;
+		/** フィールド型. **/
+		final int kind;
+		/** フィールド位置. **/
+		final int index;
+		final MethodHandle getter;
+		final MethodHandle setter;
+
+		Accessor(String name, int kind, int index, MethodHandle getter, MethodHandle setter) {
+			this.name = name;
+			this.kind = kind;
+			this.index = index;
+			this.getter = getter;
+			this.setter = setter;
+		}
+
+		/**
+		 * フィールドの値を取得(プリミティブ型はラッパーで返却).
+		 */
+		final Object value(Object o) throws Throwable {
+			if (kind == KIND_OBJECT) {
+				return (Object) getter.invokeExact(o);
+			}
+			return (Object) getter.asType(MethodType.methodType(Object.class, Object.class)).invokeExact(o);
+		}
+
+		/**
+		 * 値を設定(型が異なる場合は変換して設定).
+		 */
+		final void set(Object o, Object value) throws Throwable {
+			if (kind == KIND_OBJECT) {
+				setter.invokeExact(o, value);
+			} else {
+				setter.asType(MethodType.methodType(void.class, Object.class, Object.class)).invokeExact(o, value);
+			}
+		}
+
+		abstract void encode(SerializableCore.EncodeContext ctx, OutputStream buf, Object o) throws Throwable;
+
+		abstract void decode(SerializableCore.DecodeContext ctx, int[] pos, byte[] b, int length, Object o)
+				throws Throwable;
+	}
+
+	// boolean.
+	private static final class BooleanField extends Accessor {
+		BooleanField(String name, int kind, int index, MethodHandle getter, MethodHandle setter) {
+			super(name, kind, index, getter, setter);
+		}
+
+		void encode(SerializableCore.EncodeContext ctx, OutputStream buf, Object o) throws Throwable {
+			SerializableCore.byte1(buf, (boolean) getter.invokeExact(o) ? 1 : 0);
+		}
+
+		void decode(SerializableCore.DecodeContext ctx, int[] pos, byte[] b, int length, Object o)
+				throws Throwable {
+			setter.invokeExact(o, SerializableCore.byte1Int(b, pos) == 1);
+		}
+	}
+
+	// byte.
+	private static final class ByteField extends Accessor {
+		ByteField(String name, int kind, int index, MethodHandle getter, MethodHandle setter) {
+			super(name, kind, index, getter, setter);
+		}
+
+		void encode(SerializableCore.EncodeContext ctx, OutputStream buf, Object o) throws Throwable {
+			SerializableCore.byte1(buf, (byte) getter.invokeExact(o));
+		}
+
+		void decode(SerializableCore.DecodeContext ctx, int[] pos, byte[] b, int length, Object o)
+				throws Throwable {
+			setter.invokeExact(o, (byte) SerializableCore.byte1Int(b, pos));
+		}
+	}
+
+	// char.
+	private static final class CharField extends Accessor {
+		CharField(String name, int kind, int index, MethodHandle getter, MethodHandle setter) {
+			super(name, kind, index, getter, setter);
+		}
+
+		void encode(SerializableCore.EncodeContext ctx, OutputStream buf, Object o) throws Throwable {
+			SerializableCore.byte2(buf, (char) getter.invokeExact(o));
+		}
+
+		void decode(SerializableCore.DecodeContext ctx, int[] pos, byte[] b, int length, Object o)
+				throws Throwable {
+			setter.invokeExact(o, (char) SerializableCore.byte2Int(b, pos));
+		}
+	}
+
+	// short.
+	private static final class ShortField extends Accessor {
+		ShortField(String name, int kind, int index, MethodHandle getter, MethodHandle setter) {
+			super(name, kind, index, getter, setter);
+		}
+
+		void encode(SerializableCore.EncodeContext ctx, OutputStream buf, Object o) throws Throwable {
+			SerializableCore.byte2(buf, (short) getter.invokeExact(o));
+		}
+
+		void decode(SerializableCore.DecodeContext ctx, int[] pos, byte[] b, int length, Object o)
+				throws Throwable {
+			setter.invokeExact(o, (short) SerializableCore.byte2Int(b, pos));
+		}
+	}
+
+	// int.
+	private static final class IntField extends Accessor {
+		IntField(String name, int kind, int index, MethodHandle getter, MethodHandle setter) {
+			super(name, kind, index, getter, setter);
+		}
+
+		void encode(SerializableCore.EncodeContext ctx, OutputStream buf, Object o) throws Throwable {
+			SerializableCore.byte4(buf, (int) getter.invokeExact(o));
+		}
+
+		void decode(SerializableCore.DecodeContext ctx, int[] pos, byte[] b, int length, Object o)
+				throws Throwable {
+			setter.invokeExact(o, SerializableCore.byte4Int(b, pos));
+		}
+	}
+
+	// long.
+	private static final class LongField extends Accessor {
+		LongField(String name, int kind, int index, MethodHandle getter, MethodHandle setter) {
+			super(name, kind, index, getter, setter);
+		}
+
+		void encode(SerializableCore.EncodeContext ctx, OutputStream buf, Object o) throws Throwable {
+			SerializableCore.byte8(buf, (long) getter.invokeExact(o));
+		}
+
+		void decode(SerializableCore.DecodeContext ctx, int[] pos, byte[] b, int length, Object o)
+				throws Throwable {
+			setter.invokeExact(o, SerializableCore.byte8Long(b, pos));
+		}
+	}
+
+	// float.
+	private static final class FloatField extends Accessor {
+		FloatField(String name, int kind, int index, MethodHandle getter, MethodHandle setter) {
+			super(name, kind, index, getter, setter);
+		}
+
+		void encode(SerializableCore.EncodeContext ctx, OutputStream buf, Object o) throws Throwable {
+			SerializableCore.byte4(buf, Float.floatToRawIntBits((float) getter.invokeExact(o)));
+		}
+
+		void decode(SerializableCore.DecodeContext ctx, int[] pos, byte[] b, int length, Object o)
+				throws Throwable {
+			setter.invokeExact(o, Float.intBitsToFloat(SerializableCore.byte4Int(b, pos)));
+		}
+	}
+
+	// double.
+	private static final class DoubleField extends Accessor {
+		DoubleField(String name, int kind, int index, MethodHandle getter, MethodHandle setter) {
+			super(name, kind, index, getter, setter);
+		}
+
+		void encode(SerializableCore.EncodeContext ctx, OutputStream buf, Object o) throws Throwable {
+			SerializableCore.byte8(buf, Double.doubleToRawLongBits((double) getter.invokeExact(o)));
+		}
+
+		void decode(SerializableCore.DecodeContext ctx, int[] pos, byte[] b, int length, Object o)
+				throws Throwable {
+			setter.invokeExact(o, Double.longBitsToDouble(SerializableCore.byte8Long(b, pos)));
+		}
+	}
+
+	// オブジェクト.
+	private static final class ObjectField extends Accessor {
+		ObjectField(String name, int kind, int index, MethodHandle getter, MethodHandle setter) {
+			super(name, kind, index, getter, setter);
+		}
+
+		void encode(SerializableCore.EncodeContext ctx, OutputStream buf, Object o) throws Throwable {
+			SerializableCore.encodeObject(ctx, buf, (Object) getter.invokeExact(o));
+		}
+
+		void decode(SerializableCore.DecodeContext ctx, int[] pos, byte[] b, int length, Object o)
+				throws Throwable {
+			setter.invokeExact(o, SerializableCore.decodeObject(ctx, pos, b, length));
+		}
+	}
+}
@@ -0,0 +1,207 @@
+package objectpack;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * 変更不可の Map.
+ *
+ * AndroidMap.freeze() や、デコードオプション SerializableCore.DECODE_FROZEN で生成されます.
+ * キーと値を交互に並べた配列と、ハッシュ値と要素番号を組にしたオープンアドレス法(線形探索)の
+ * ハッシュテーブルで保持し、使用率を 1/2 以下に抑えることで、多くの検索が1回の探索で完了します.
+ *
+ * 変更操作は UnsupportedOperationException となります. 変更されないため、スレッド間で共有できます.
+ */
+@SuppressWarnings("unchecked")
+public final class FrozenMap<K, V> extends AbstractMap<K, V> {
+
+	/** キーと値を交互に並べた配列. **/
+	private final Object[] array;
+
+	/** ハッシュ値と要素番号+1(空きは0)を交互に並べたハッシュテーブル. **/
+	private final int[] table;
+
+	/** ハッシュテーブルのマスク値. **/
+	private final int mask;
+
+	/** エントリセット. **/
+	private Set<Map.Entry<K, V>> entrySet;
+
+	/**
+	 * コンストラクタ.
+	 *
+	 * @param map 対象の Map を設定します.
+	 */
+	public FrozenMap(Map<? extends K, ? extends V> map) {
+		final int len = map.size();
+		final Object[] a = new Object[len << 1];
+		final int[] hashes = new int[len];
+		int n = 0;
+		Object k;
+		for (Map.Entry<? extends K, ? extends V> e : map.entrySet()) {
+			if (n == len) {
+				throw new IllegalArgumentException("Map size changed during freeze");
+			}
+			k = e.getKey();
+			a[n << 1] = k;
+			a[(n << 1) + 1] = e.getValue();
+			hashes[n++] = k == null ? 0 : k.hashCode();
+		}
+		this.array = n == len ? a : Arrays.copyOf(a, n << 1);
+		this.mask = tableLength(n) - 1;
+		this.table = build(hashes, n, mask);
+	}
+
+	/**
+	 * コンストラクタ.
+	 *
+	 * @param hashes キーのハッシュ値を設定します.
+	 * @param array  キーと値を交互に並べた配列を設定します(そのまま保持されます).
+	 * @param size   要素数を設定します.
+	 */
+	FrozenMap(int[] hashes, Object[] array, int size) {
+		this.array = array;
+		this.mask = tableLength(size) - 1;
+		this.table = build(hashes, size, mask);
+	}
+
+	@Override
+	public int size() {
+		return array.length >> 1;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return array.length == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return indexOf(key) >= 0;
+	}
+
+	@Override
+	public V get(Object key) {
+		final int n = indexOf(key);
+		return n < 0 ? null : (V) array[n + 1];
+	}
+
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+		final int n = indexOf(key);
+		return n < 0 ? defaultValue : (V) array[n + 1];
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		for (int i = 0; i < array.length; i += 2) {
+			action.accept((K) array[i], (V) array[i + 1]);
+		}
+	}
+
+	@Override
+	public V put(K key, V value) {
+		throw new UnsupportedOperationException("FrozenMap is immutable");
+	}
+
+	@Override
+	public V remove(Object key) {
+		throw new UnsupportedOperationException("FrozenMap is immutable");
+	}
+
+	@Override
+	public void putAll(Map<? extends K, ? extends V> m) {
+		throw new UnsupportedOperationException("FrozenMap is immutable");
+	}
+
+	@Override
+	public void clear() {
+		throw new UnsupportedOperationException("FrozenMap is immutable");
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new AbstractSet<Map.Entry<K, V>>() {
+				@Override
+				public Iterator<Map.Entry<K, V>> iterator() {
+					return new Iterator<Map.Entry<K, V>>() {
+						private int n = 0;
+
+						@Override
+						public boolean hasNext() {
+							return n < array.length;
+						}
+
+						@Override
+						public Map.Entry<K, V> next() {
+							if (n >= array.length) {
+								throw new NoSuchElementException();
+							}
+							final int i = n;
+							n += 2;
+							return new AbstractMap.SimpleImmutableEntry<K, V>((K) array[i], (V) array[i + 1]);
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return array.length >> 1;
+				}
+			};
+		}
+		return entrySet;
+	}
+
+	// キーの配列上の位置を取得(存在しない場合は-1).
+	private final int indexOf(Object key) {
+		final int h = key == null ? 0 : key.hashCode();
+		int i = spread(h) & mask;
+		int e;
+		Object k;
+		while ((e = table[(i << 1) + 1]) != 0) {
+			if (table[i << 1] == h) {
+				k = array[(e - 1) << 1];
+				if (k == key || (key != null && key.equals(k))) {
+					return (e - 1) << 1;
+				}
+			}
+			i = (i + 1) & mask;
+		}
+		return -1;
+	}
+
+	// ハッシュテーブルを生成.
+	private static final int[] build(int[] hashes, int size, int mask) {
+		final int[] ret = new int[(mask + 1) << 1];
+		int h, i;
+		for (int n = 0; n < size; n++) {
+			h = hashes[n];
+			i = spread(h) & mask;
+			while (ret[(i << 1) + 1] != 0) {
+				i = (i + 1) & mask;
+			}
+			ret[i << 1] = h;
+			ret[(i << 1) + 1] = n + 1;
+		}
+		return ret;
+	}
+
+	// 要素数に対するハッシュテーブルのサイズ(要素数の2倍以上の2のべき乗)を取得.
+	private static final int tableLength(int size) {
+		return size <= 1 ? 2 : Integer.highestOneBit((size << 1) - 1) << 1;
+	}
+
+	// ハッシュ値の上位ビットを下位に混ぜる.
+	private static final int spread(int h) {
+		h *= 0x9e3779b9;
+		return h ^ (h >>> 16);
+	}
+}
@@ -0,0 +1,265 @@
+package objectpack;
+
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 要素位置の索引付きの Object配列、List、Map 変換.
+ *
+ * 要素の後ろに各要素の開始位置(要素部の先頭からの相対位置)を4バイト固定長で出力し、
+ * 先頭の要素から読み飛ばすことなく、インデックス指定で要素を取得できるようにします.
+ * SerializableCore.MODE_INDEXED を指定した場合の、要素数の多い Object配列、List で利用されます.
+ *
+ * また SerializableCore.MODE_SORTED を指定した場合の、キーが全て String の Map は、
+ * キーを Unicode コードポイント順(UTF-8 のバイト順と同じ)に並べ替えて索引付きで出力し、
+ * バイナリ上でキーを二分探索できるようにします.
+ *
+ * フォーマット: [List(byte1)][長さ(byte4)][要素部のバイト長(4バイト固定長)][要素部][索引(4バイト固定長 * 長さ)].
+ * Map の場合は List の指定は無く、要素部はキーと値の組となります.
+ */
+final class IndexedArray {
+	private IndexedArray() {
+	}
+
+	/** 索引を付与する最小の要素数. **/
+	static final int MIN_LENGTH = 64;
+
+	/** キーを並べ替えて出力する Map の最小の要素数. **/
+	static final int MIN_MAP_LENGTH = 8;
+
+	/**
+	 * Object配列、Listを索引付きで出力.
+	 *
+	 * @param ctx  エンコード処理中の情報を設定します.
+	 * @param buf  対象のバッファを設定します.
+	 * @param v    対象の Object配列、またはListを設定します.
+	 * @param len  要素数を設定します.
+	 * @param list [true]の場合、Listとして復元します.
+	 * @return boolean [true]の場合、出力されました.
+	 * @exception Exception 例外.
+	 */
+	@SuppressWarnings("rawtypes")
+	static final boolean encode(SerializableCore.EncodeContext ctx, OutputStream buf, Object v, int len, boolean list)
+			throws Exception {
+		if (!ctx.indexed || len < MIN_LENGTH || !(buf instanceof ByteArrayIO)) {
+			return false;
+		}
+		final ByteArrayIO io = (ByteArrayIO) buf;
+		SerializableCore.head(buf, 55); // 索引付き Object配列、List.
+		SerializableCore.byte1(buf, list ? 1 : 0);
+		SerializableCore.byte4(buf, len);
+		final int p = io.size();
+		buf.write(new byte[4]);
+		final int start = p + 4;
+		final byte[] index = new byte[len << 2];
+		int off;
+		for (int i = 0, j = 0; i < len; i++) {
+			off = io.size() - start;
+			index[j++] = (byte) off;
+			index[j++] = (byte) (off >> 8);
+			index[j++] = (byte) (off >> 16);
+			index[j++] = (byte) (off >> 24);
+			SerializableCore.encodeObject(ctx, buf, list ? ((List) v).get(i) : Array.get(v, i));
+		}
+		// 要素部のバイト長は出力完了後にまとめてセット.
+		ctx.skipLength(p, io.size() - start);
+		buf.write(index);
+		return true;
+	}
+
+	/**
+	 * キーが全て String の Map を、キーを並べ替えて索引付きで出力.
+	 *
+	 * @param ctx エンコード処理中の情報を設定します.
+	 * @param buf 対象のバッファを設定します.
+	 * @param map 対象の Map を設定します.
+	 * @return boolean [true]の場合、出力されました.
+	 * @exception Exception 例外.
+	 */
+	@SuppressWarnings("rawtypes")
+	static final boolean encode(SerializableCore.EncodeContext ctx, OutputStream buf, Map map) throws Exception {
+		if (!(buf instanceof ByteArrayIO) || SerializableCore.originCode() != null) {
+			return false;
+		}
+		final String[] keys = sortedKeys(ctx, map);
+		if (keys == null) {
+			return false;
+		}
+		final int len = keys.length;
+		final ByteArrayIO io = (ByteArrayIO) buf;
+		SerializableCore.head(buf, 56); // キーを並べ替えた索引付き Map.
+		SerializableCore.byte4(buf, len);
+		final int p = io.size();
+		buf.write(new byte[4]);
+		final int start = p + 4;
+		final byte[] index = new byte[len << 2];
+		int off;
+		for (int i = 0, j = 0; i < len; i++) {
+			off = io.size() - start;
+			index[j++] = (byte) off;
+			index[j++] = (byte) (off >> 8);
+			index[j++] = (byte) (off >> 16);
+			index[j++] = (byte) (off >> 24);
+			SerializableCore.head(buf, 1); // string.
+			SerializableCore.stringBinary(ctx.strSeqMap, buf, keys[i]);
+			SerializableCore.encodeObject(ctx, buf, map.get(keys[i]));
+		}
+		ctx.skipLength(p, io.size() - start);
+		buf.write(index);
+		return true;
+	}
+
+	/**
+	 * MODE_SORTED で並べ替える Map のキーを、コードポイント順で取得.
+	 *
+	 * @param ctx エンコード処理中の情報を設定します.
+	 * @param map 対象の Map を設定します.
+	 * @return String[] 並べ替えたキーが返却されます. 並べ替えの対象外の場合は[null]が返却されます.
+	 */
+	@SuppressWarnings("rawtypes")
+	static final String[] sortedKeys(SerializableCore.EncodeContext ctx, Map map) {
+		final int len = map.size();
+		if (!ctx.sorted || len < MIN_MAP_LENGTH) {
+			return null;
+		}
+		final String[] keys = new String[len];
+		int n = 0;
+		for (Object k : map.keySet()) {
+			if (!(k instanceof String) || n == len) {
+				return null;
+			}
+			keys[n++] = (String) k;
+		}
+		if (n != len) {
+			return null;
+		}
+		Arrays.sort(keys, IndexedArray::compare);
+		return keys;
+	}
+
+	/**
+	 * 索引付きの Object配列、Listを復元.
+	 *
+	 * @param ctx    デコード処理中の情報を設定します.
+	 * @param pos    対象のポジションを設定します.
+	 * @param b      対象のバイナリを設定します.
+	 * @param length 対象の長さを設定します.
+	 * @return Object 復元された配列、またはListが返却されます.
+	 * @exception Exception 例外.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	static final Object decode(SerializableCore.DecodeContext ctx, int[] pos, byte[] b, int length)
+			throws Exception {
+		final boolean list = SerializableCore.byte1Int(b, pos) == 1;
+		final int len = SerializableCore.byte4Int(b, pos);
+		pos[0] += 4;
+		final Object ret;
+		if (list) {
+			final List lst = ctx.register(new ArrayList(len));
+			for (int i = 0; i < len; i++) {
+				lst.add(SerializableCore.decodeObject(ctx, pos, b, length));
+			}
+			ret = lst;
+		} else {
+			final Object[] lst = ctx.register(new Object[len]);
+			for (int i = 0; i < len; i++) {
+				lst[i] = SerializableCore.decodeObject(ctx, pos, b, length);
+			}
+			ret = lst;
+		}
+		// 索引を読み飛ばす.
+		pos[0] += len << 2;
+		return ret;
+	}
+
+	/**
+	 * キーを並べ替えた索引付きの Map を復元.
+	 *
+	 * @param ctx    デコード処理中の情報を設定します.
+	 * @param pos    対象のポジションを設定します.
+	 * @param b      対象のバイナリを設定します.
+	 * @param length 対象の長さを設定します.
+	 * @return Map 復元された Map が返却されます.
+	 * @exception Exception 例外.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	static final Map decodeMap(SerializableCore.DecodeContext ctx, int[] pos, byte[] b, int length)
+			throws Exception {
+		final int len = SerializableCore.byte4Int(b, pos);
+		pos[0] += 4;
+		final Map map = ctx.register(SerializableCore.newMap(len));
+		for (int i = 0; i < len; i++) {
+			map.put(SerializableCore.decodeObject(ctx, pos, b, length),
+					SerializableCore.decodeObject(ctx, pos, b, length));
+		}
+		// 索引を読み飛ばす.
+		pos[0] += len << 2;
+		return ctx.finish(map);
+	}
+
+	/**
+	 * 索引付きの Object配列、List(List の指定の後)、Map を読み飛ばす.
+	 *
+	 * @param pos 対象のポジションを設定します.
+	 * @param b   対象のバイナリを設定します.
+	 */
+	static final void skip(int[] pos, byte[] b) {
+		final int len = SerializableCore.byte4Int(b, pos);
+		pos[0] = end(b, pos[0] + 4, len);
+	}
+
+	/**
+	 * 索引の終端位置を取得.
+	 *
+	 * @param b     対象のバイナリを設定します.
+	 * @param start 要素部の開始位置を設定します.
+	 * @param len   要素数を設定します.
+	 * @return int 索引の終端位置が返却されます.
+	 */
+	static final int end(byte[] b, int start, int len) {
+		return start + SerializableCore.fixed4Int(b, start - 4) + (len << 2);
+	}
+
+	/**
+	 * 要素の位置を取得.
+	 *
+	 * @param b     対象のバイナリを設定します.
+	 * @param start 要素部の開始位置を設定します.
+	 * @param index 要素のインデックスを設定します.
+	 * @return int 要素の開始位置が返却されます.
+	 */
+	static final int element(byte[] b, int start, int index) {
+		return start + SerializableCore.fixed4Int(b, start + SerializableCore.fixed4Int(b, start - 4) + (index << 2));
+	}
+
+	/**
+	 * キーをコードポイント順で比較.
+	 *
+	 * サロゲートペアを含む場合も、UTF-8 のバイト列を符号なしで比較した結果と同じ順序になります.
+	 *
+	 * @param a 比較元のキーを設定します.
+	 * @param b 比較先のキーを設定します.
+	 * @return int 比較結果が返却されます.
+	 */
+	static final int compare(String a, String b) {
+		final int len = Math.min(a.length(), b.length());
+		char x, y;
+		for (int i = 0; i < len; i++) {
+			x = a.charAt(i);
+			y = b.charAt(i);
+			if (x != y) {
+				// サロゲート(U+D800-DFFF)を U+E000 以降の文字より後ろに並べる.
+				if (x >= 0xd800 && y >= 0xd800) {
+					x = (char) (x >= 0xe000 ? x - 0x800 : x + 0x2000);
+					y = (char) (y >= 0xe000 ? y - 0x800 : y + 0x2000);
+				}
+				return x - y;
+			}
+		}
+		return a.length() - b.length();
+	}
+}
@@ -0,0 +1,183 @@
+package objectpack;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.RandomAccess;
+
+/**
+ * バイナリを直接参照する遅延デコードの List.
+ *
+ * SerializableCore.decodeLazy で復元された List で、要素の位置は参照されたインデックスまで順に読み込み
+ * (索引付きの List の場合は索引から直接取得)、要素は最初に参照された時点で復元して保持します. 要素が Map、List の場合も遅延デコードのビューとなります.
+ * 変更操作が行われた場合は、全要素を復元して通常のリストとして扱います.
+ *
+ * 元のバイナリを参照し続けるため、利用中はバイナリを変更しないでください.
+ * また、参照操作でも内部状態が変わるため、スレッドセーフではありません.
+ */
+final class LazyList extends AbstractList<Object> implements RandomAccess {
+
+	/** 復元済みの null 要素. **/
+	private static final Object NULL = new Object();
+
+	/** 読み込み元. **/
+	private final SerializablePath source;
+
+	/** 最初の要素の位置. **/
+	private final int start;
+
+	/** 要素数. **/
+	private final int size;
+
+	/** 索引付きの場合は[true]. **/
+	private final boolean indexed;
+
+	/** 要素の位置(索引付きの場合は[null]). **/
+	private int[] at;
+
+	/** 復元済みの要素(未復元の場合は[null]). **/
+	private Object[] values;
+
+	/** 位置を取得済みの要素数. **/
+	private int scanned;
+
+	/** 位置を取得済みの最後の要素の終端位置(不明な場合は[-1]). **/
+	private int tail = -1;
+
+	/** 変更操作後のリスト. **/
+	private ArrayList<Object> list;
+
+	/**
+	 * コンストラクタ.
+	 *
+	 * @param source  読み込み元を設定します.
+	 * @param start   最初の要素の位置を設定します.
+	 * @param size    要素数を設定します.
+	 * @param indexed 索引付きの場合は[true]を設定します.
+	 */
+	LazyList(SerializablePath source, int start, int size, boolean indexed) {
+		this.source = source;
+		this.start = start;
+		this.size = size;
+		this.indexed = indexed;
+		this.values = new Object[size];
+		if (indexed) {
+			scanned = size;
+		} else {
+			this.at = new int[size];
+			if (size > 0) {
+				at[0] = start;
+				scanned = 1;
+			}
+		}
+	}
+
+	@Override
+	public Object get(int index) {
+		if (list != null) {
+			return list.get(index);
+		}
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		Object ret = values[index];
+		if (ret == null) {
+			final int[] p = new int[1];
+			try {
+				if (indexed) {
+					p[0] = source.element(start, index);
+				} else {
+					// 対象の要素まで読み飛ばして位置を取得.
+					while (scanned <= index) {
+						p[0] = tail >= 0 ? tail : SerializablePath.end(values[scanned - 1]);
+						if (p[0] < 0) {
+							p[0] = at[scanned - 1];
+							source.skip(p);
+						}
+						at[scanned++] = p[0];
+						tail = -1;
+					}
+					p[0] = at[index];
+				}
+				ret = source.lazy(p);
+			} catch (Exception e) {
+				throw SerializablePath.unchecked(e);
+			}
+			values[index] = ret == null ? NULL : ret;
+			if (index == scanned - 1) {
+				tail = p[0];
+			}
+			return ret;
+		}
+		return ret == NULL ? null : ret;
+	}
+
+	/**
+	 * 終端位置を取得.
+	 *
+	 * @return int 全要素を走査済みで終端位置が判明している場合は終端位置、それ以外は[-1]が返却されます.
+	 */
+	final int end() {
+		if (indexed) {
+			return list == null ? source.indexedEnd(start, size) : -1;
+		} else if (size == 0) {
+			return start;
+		}
+		return list == null && scanned == size ? tail : -1;
+	}
+
+	/**
+	 * 全要素を走査済みの場合、最後の要素を取得.
+	 *
+	 * @return Object 最後の要素が返却されます. 走査中の場合は[null]が返却されます.
+	 */
+	final Object last() {
+		if (list == null && !indexed && scanned == size && size > 0) {
+			final Object ret = values[size - 1];
+			return ret == NULL ? null : ret;
+		}
+		return null;
+	}
+
+	@Override
+	public int size() {
+		return list != null ? list.size() : size;
+	}
+
+	@Override
+	public Object set(int index, Object element) {
+		return materialize().set(index, element);
+	}
+
+	@Override
+	public void add(int index, Object element) {
+		materialize().add(index, element);
+		modCount++;
+	}
+
+	@Override
+	public Object remove(int index) {
+		final Object ret = materialize().remove(index);
+		modCount++;
+		return ret;
+	}
+
+	@Override
+	public void clear() {
+		materialize().clear();
+		modCount++;
+	}
+
+	// 全要素を復元して、変更可能なリストに切り替え.
+	private final ArrayList<Object> materialize() {
+		if (list == null) {
+			final ArrayList<Object> ret = new ArrayList<Object>(size);
+			for (int i = 0; i < size; i++) {
+				ret.add(get(i));
+			}
+			list = ret;
+			at = null;
+			values = null;
+		}
+		return list;
+	}
+}
@@ -0,0 +1,369 @@
+package objectpack;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * バイナリを直接参照する遅延デコードの Map.
+ *
+ * SerializableCore.decodeLazy で復元された Map で、キーは参照されたキーが見つかるまで順に読み込み
+ * (キーを並べ替えた索引付きの Map の場合は二分探索)、値は最初に参照された時点で復元して保持します. 値が Map、List の場合も遅延デコードのビューとなります.
+ * 変更操作が行われた場合は、全要素を復元して通常の Map として扱います.
+ *
+ * 元のバイナリを参照し続けるため、利用中はバイナリを変更しないでください.
+ * また、参照操作でも内部状態が変わるため、スレッドセーフではありません.
+ */
+final class LazyMap extends AbstractMap<Object, Object> {
+
+	/** 復元済みの null 値. **/
+	private static final Object NULL = new Object();
+
+	/** ハッシュでキーを検索する要素数. **/
+	private static final int HASH_LENGTH = 8;
+
+	/** 読み込み元. **/
+	private final SerializablePath source;
+
+	/** 最初の要素の位置. **/
+	private final int start;
+
+	/** 要素数. **/
+	private final int size;
+
+	/** キーを並べ替えた索引付きの場合は[true]. **/
+	private final boolean sorted;
+
+	/** 読み込み済みのキー(索引付きの場合は未読込のキーは[null]、変更操作後は反復中の反復子が参照). **/
+	private Object[] keys;
+
+	/** 値の位置. **/
+	private int[] at;
+
+	/** 復元済みの値(未復元の場合は[null]). **/
+	private Object[] values;
+
+	/** 読み込み済みの要素数. **/
+	private int scanned;
+
+	/** 最後に読み込んだ要素の値の終端位置(不明な場合は[-1]). **/
+	private int tail = -1;
+
+	/** キーの検索用. **/
+	private HashMap<Object, Integer> index;
+
+	/** 変更操作後の Map. **/
+	private Map<Object, Object> map;
+
+	/** エントリセット. **/
+	private Set<Map.Entry<Object, Object>> entrySet;
+
+	/**
+	 * コンストラクタ.
+	 *
+	 * @param source 読み込み元を設定します.
+	 * @param start  最初の要素の位置を設定します.
+	 * @param size   要素数を設定します.
+	 * @param sorted キーを並べ替えた索引付きの場合は[true]を設定します.
+	 */
+	LazyMap(SerializablePath source, int start, int size, boolean sorted) {
+		this.source = source;
+		this.start = start;
+		this.size = size;
+		this.sorted = sorted;
+		if (sorted) {
+			scanned = size;
+		}
+		this.keys = new Object[size];
+		this.at = new int[size];
+		this.values = new Object[size];
+	}
+
+	@Override
+	public Object get(Object key) {
+		if (map != null) {
+			return map.get(key);
+		}
+		final int n = find(key);
+		return n < 0 ? null : value(n);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		if (map != null) {
+			return map.containsKey(key);
+		}
+		return find(key) >= 0;
+	}
+
+	@Override
+	public int size() {
+		return map != null ? map.size() : size;
+	}
+
+	@Override
+	public Object put(Object key, Object value) {
+		return materialize().put(key, value);
+	}
+
+	@Override
+	public Object remove(Object key) {
+		return materialize().remove(key);
+	}
+
+	@Override
+	public void clear() {
+		materialize().clear();
+	}
+
+	@Override
+	public Set<Map.Entry<Object, Object>> entrySet() {
+		if (map != null) {
+			return map.entrySet();
+		}
+		if (entrySet == null) {
+			entrySet = new AbstractSet<Map.Entry<Object, Object>>() {
+				@Override
+				public Iterator<Map.Entry<Object, Object>> iterator() {
+					if (map != null) {
+						return map.entrySet().iterator();
+					}
+					return new Iterator<Map.Entry<Object, Object>>() {
+						private int n = 0;
+						private int last = -1;
+
+						@Override
+						public boolean hasNext() {
+							// 反復中に変更された場合は、削除済みのキーを読み飛ばす.
+							if (map != null) {
+								while (n < size && !map.containsKey(keys[n])) {
+									n++;
+								}
+							}
+							return n < size;
+						}
+
+						@Override
+						public Map.Entry<Object, Object> next() {
+							if (!hasNext()) {
+								throw new NoSuchElementException();
+							}
+							if (map == null && n >= scanned) {
+								scan();
+							}
+							last = n;
+							return new Entry(n++);
+						}
+
+						@Override
+						public void remove() {
+							if (last < 0) {
+								throw new IllegalStateException();
+							}
+							materialize().remove(key(last));
+							last = -1;
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return LazyMap.this.size();
+				}
+			};
+		}
+		return entrySet;
+	}
+
+	// キーの要素番号を取得(未読込の場合は見つかるまで読み込む).
+	private final int find(Object key) {
+		if (sorted) {
+			if (!(key instanceof String)) {
+				return -1;
+			}
+			final int n = source.search(start, size, (String) key);
+			if (n >= 0) {
+				key(n);
+			}
+			return n;
+		}
+		if (index == null && scanned > HASH_LENGTH) {
+			index = new HashMap<Object, Integer>(size << 1);
+			for (int i = 0; i < scanned; i++) {
+				index.put(keys[i], i);
+			}
+		}
+		if (index != null) {
+			final Integer n = index.get(key);
+			if (n != null) {
+				return n;
+			}
+		} else {
+			for (int i = 0; i < scanned; i++) {
+				if (Objects.equals(keys[i], key)) {
+					return i;
+				}
+			}
+		}
+		int n;
+		while (scanned < size) {
+			n = scan();
+			if (Objects.equals(keys[n], key)) {
+				return n;
+			}
+		}
+		return -1;
+	}
+
+	// 次の要素のキーを読み込む(値は終端位置が不明な場合のみ読み飛ばす).
+	private final int scan() {
+		final int n = scanned;
+		try {
+			final int[] p = new int[] { start };
+			if (n > 0) {
+				p[0] = tail >= 0 ? tail : SerializablePath.end(values[n - 1]);
+				if (p[0] < 0) {
+					p[0] = at[n - 1];
+					source.skip(p);
+				}
+			}
+			keys[n] = source.value(p);
+			at[n] = p[0];
+		} catch (Exception e) {
+			throw SerializablePath.unchecked(e);
+		}
+		scanned++;
+		tail = -1;
+		if (index != null) {
+			index.put(keys[n], n);
+		}
+		return n;
+	}
+
+	// キーを取得(索引付きの場合は索引から読み込む).
+	private final Object key(int n) {
+		if (sorted && keys[n] == null) {
+			final int[] p = new int[] { source.element(start, n) };
+			try {
+				keys[n] = source.value(p);
+			} catch (Exception e) {
+				throw SerializablePath.unchecked(e);
+			}
+			at[n] = p[0];
+		}
+		return keys[n];
+	}
+
+	// 値を取得.
+	private final Object value(int n) {
+		Object ret = values[n];
+		if (ret == null) {
+			key(n);
+			final int[] p = new int[] { at[n] };
+			try {
+				ret = source.lazy(p);
+			} catch (Exception e) {
+				throw SerializablePath.unchecked(e);
+			}
+			values[n] = ret == null ? NULL : ret;
+			if (n == scanned - 1) {
+				tail = p[0];
+			}
+			return ret;
+		}
+		return ret == NULL ? null : ret;
+	}
+
+	/**
+	 * 終端位置を取得.
+	 *
+	 * @return int 全要素を走査済みで終端位置が判明している場合は終端位置、それ以外は[-1]が返却されます.
+	 */
+	final int end() {
+		if (sorted) {
+			return map == null ? source.indexedEnd(start, size) : -1;
+		} else if (size == 0) {
+			return start;
+		}
+		return map == null && scanned == size ? tail : -1;
+	}
+
+	/**
+	 * 全要素を走査済みの場合、最後の要素を取得.
+	 *
+	 * @return Object 最後の要素が返却されます. 走査中の場合は[null]が返却されます.
+	 */
+	final Object last() {
+		if (map == null && !sorted && scanned == size && size > 0) {
+			final Object ret = values[size - 1];
+			return ret == NULL ? null : ret;
+		}
+		return null;
+	}
+
+	// 全要素を復元して、通常の Map に切り替え.
+	private final Map<Object, Object> materialize() {
+		if (map == null) {
+			final Map<Object, Object> ret = SerializableCore.newMap(size);
+			for (int i = 0; i < size; i++) {
+				if (i >= scanned) {
+					scan();
+				}
+				ret.put(key(i), value(i));
+			}
+			map = ret;
+			at = null;
+			values = null;
+			index = null;
+		}
+		return map;
+	}
+
+	// 要素番号単位のエントリ.
+	private final class Entry implements Map.Entry<Object, Object> {
+		private final int n;
+
+		Entry(int n) {
+			this.n = n;
+		}
+
+		@Override
+		public Object getKey() {
+			return key(n);
+		}
+
+		@Override
+		public Object getValue() {
+			return map != null ? map.get(key(n)) : value(n);
+		}
+
+		@Override
+		public Object setValue(Object value) {
+			return materialize().put(key(n), value);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Map.Entry)) {
+				return false;
+			}
+			final Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+			return Objects.equals(getKey(), e.getKey()) && Objects.equals(getValue(), e.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+		}
+
+		@Override
+		public String toString() {
+			return getKey() + "=" + getValue();
+		}
+	}
+}
@@ -0,0 +1,440 @@
+package objectpack;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * long キーの Map.
+ *
+ * AndroidMap と同じ配列ベースの Map で、キーを long のまま昇順に並べた long 配列と値の配列で保持し、
+ * キーを二分探索で検索します. キーのボックス化、hashCode()、equals() を行わないため、
+ * get(long)、put(long, V) 等のプリミティブのメソッドではボックス化も発生しません.
+ * デコードオプション SerializableCore.DECODE_PRIMITIVE_KEYS で、キーが全て Long の Map の復元に利用されます.
+ *
+ * null キーは利用できません. スレッドセーフではありません.
+ */
+@SuppressWarnings("unchecked")
+public final class LongArrayMap<V> extends AbstractMap<Long, V> {
+
+	/** 最小の配列サイズ. **/
+	private static final int BASE_SIZE = 4;
+
+	/** 空の配列. **/
+	private static final long[] EMPTY_KEYS = new long[0];
+	private static final Object[] EMPTY_VALUES = new Object[0];
+
+	/** 昇順のキー. **/
+	private long[] keys;
+
+	/** キーに対応する値. **/
+	private Object[] values;
+
+	/** 要素数. **/
+	private int size;
+
+	/** 変更回数. **/
+	private int modCount;
+
+	/** エントリセット. **/
+	private Set<Map.Entry<Long, V>> entrySet;
+
+	/**
+	 * コンストラクタ.
+	 */
+	public LongArrayMap() {
+		this(0);
+	}
+
+	/**
+	 * コンストラクタ.
+	 *
+	 * @param capacity 初期の要素数を設定します.
+	 */
+	public LongArrayMap(int capacity) {
+		if (capacity <= 0) {
+			keys = EMPTY_KEYS;
+			values = EMPTY_VALUES;
+		} else {
+			keys = new long[capacity];
+			values = new Object[capacity];
+		}
+	}
+
+	/**
+	 * コンストラクタ.
+	 *
+	 * キーをまとめて並べ替えて生成します.
+	 *
+	 * @param map 初期の要素を設定します.
+	 */
+	public LongArrayMap(Map<? extends Long, ? extends V> map) {
+		this(map.size());
+		int n = 0;
+		for (Long k : map.keySet()) {
+			if (n == keys.length) {
+				throw new IllegalArgumentException("Map size changed during copy");
+			}
+			keys[n++] = k;
+		}
+		Arrays.sort(keys, 0, n);
+		for (int i = 0; i < n; i++) {
+			values[i] = map.get(keys[i]);
+		}
+		size = n;
+	}
+
+	/**
+	 * キーと値を交互に並べた配列から生成.
+	 *
+	 * 同じキーが複数存在する場合は、後の値が有効となります.
+	 *
+	 * @param kv  キーと値を交互に並べた配列を設定します(キーは全て Long).
+	 * @param len 要素数を設定します.
+	 * @return LongArrayMap 生成された Map が返却されます.
+	 */
+	static final <V> LongArrayMap<V> of(Object[] kv, int len) {
+		final LongArrayMap<V> ret = new LongArrayMap<V>(len);
+		final long[] k = new long[len];
+		boolean sorted = true;
+		for (int i = 0; i < len; i++) {
+			k[i] = (Long) kv[i << 1];
+			if (i > 0 && k[i - 1] >= k[i]) {
+				sorted = false;
+			}
+		}
+		if (sorted) {
+			ret.keys = k;
+			for (int i = 0; i < len; i++) {
+				ret.values[i] = kv[(i << 1) + 1];
+			}
+			ret.size = len;
+			return ret;
+		}
+		final int[] idx = new int[len];
+		for (int i = 0; i < len; i++) {
+			idx[i] = i;
+		}
+		sort(idx, k);
+		int n = 0, j;
+		for (int i = 0; i < len; i++) {
+			j = idx[i];
+			if (n > 0 && ret.keys[n - 1] == k[j]) {
+				ret.values[n - 1] = kv[(j << 1) + 1];
+				continue;
+			}
+			ret.keys[n] = k[j];
+			ret.values[n++] = kv[(j << 1) + 1];
+		}
+		ret.size = n;
+		return ret;
+	}
+
+	// 要素番号をキーの昇順に並べ替え(同じキーは元の順序を保持).
+	private static final void sort(int[] idx, long[] k) {
+		final int len = idx.length;
+		int[] src = idx, dst = new int[len], t;
+		int mid, hi, i, j, o;
+		for (int w = 1; w < len; w <<= 1) {
+			for (int lo = 0; lo < len; lo += w << 1) {
+				mid = Math.min(lo + w, len);
+				hi = Math.min(lo + (w << 1), len);
+				i = lo;
+				j = mid;
+				o = lo;
+				while (i < mid && j < hi) {
+					dst[o++] = k[src[j]] < k[src[i]] ? src[j++] : src[i++];
+				}
+				while (i < mid) {
+					dst[o++] = src[i++];
+				}
+				while (j < hi) {
+					dst[o++] = src[j++];
+				}
+			}
+			t = src;
+			src = dst;
+			dst = t;
+		}
+		if (src != idx) {
+			System.arraycopy(src, 0, idx, 0, len);
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * キーの位置を取得.
+	 *
+	 * @param key 対象のキーを設定します.
+	 * @return int 位置が返却されます. 存在しない場合は挿入位置の補数(負の値)が返却されます.
+	 */
+	public int indexOfKey(long key) {
+		return Arrays.binarySearch(keys, 0, size, key);
+	}
+
+	/**
+	 * 位置のキーを取得.
+	 *
+	 * @param index 位置を設定します.
+	 * @return long キーが返却されます.
+	 */
+	public long keyAt(int index) {
+		if (index >= size) {
+			throw new ArrayIndexOutOfBoundsException(index);
+		}
+		return keys[index];
+	}
+
+	/**
+	 * 位置の値を取得.
+	 *
+	 * @param index 位置を設定します.
+	 * @return V 値が返却されます.
+	 */
+	public V valueAt(int index) {
+		if (index >= size) {
+			throw new ArrayIndexOutOfBoundsException(index);
+		}
+		return (V) values[index];
+	}
+
+	/**
+	 * キーが存在するかチェック.
+	 *
+	 * @param key 対象のキーを設定します.
+	 * @return boolean [true]の場合、存在します.
+	 */
+	public boolean containsKey(long key) {
+		return indexOfKey(key) >= 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return key instanceof Long && indexOfKey((Long) key) >= 0;
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		for (int i = 0; i < size; i++) {
+			if (Objects.equals(value, values[i])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 値を取得.
+	 *
+	 * @param key 対象のキーを設定します.
+	 * @return V 値が返却されます. 存在しない場合は[null]が返却されます.
+	 */
+	public V get(long key) {
+		final int index = indexOfKey(key);
+		return index < 0 ? null : (V) values[index];
+	}
+
+	@Override
+	public V get(Object key) {
+		return key instanceof Long ? get((long) (Long) key) : null;
+	}
+
+	/**
+	 * 値を設定.
+	 *
+	 * @param key   対象のキーを設定します.
+	 * @param value 対象の値を設定します.
+	 * @return V 以前の値が返却されます. 存在しなかった場合は[null]が返却されます.
+	 */
+	public V put(long key, V value) {
+		int index = indexOfKey(key);
+		if (index >= 0) {
+			final V ret = (V) values[index];
+			values[index] = value;
+			return ret;
+		}
+		index = ~index;
+		if (size == keys.length) {
+			final int n = size >= (BASE_SIZE * 2) ? (size + (size >> 1))
+					: (size >= BASE_SIZE ? (BASE_SIZE * 2) : BASE_SIZE);
+			keys = Arrays.copyOf(keys, n);
+			values = Arrays.copyOf(values, n);
+		}
+		if (index < size) {
+			System.arraycopy(keys, index, keys, index + 1, size - index);
+			System.arraycopy(values, index, values, index + 1, size - index);
+		}
+		keys[index] = key;
+		values[index] = value;
+		size++;
+		modCount++;
+		return null;
+	}
+
+	@Override
+	public V put(Long key, V value) {
+		return put((long) key, value);
+	}
+
+	/**
+	 * 値を削除.
+	 *
+	 * @param key 対象のキーを設定します.
+	 * @return V 削除された値が返却されます. 存在しなかった場合は[null]が返却されます.
+	 */
+	public V remove(long key) {
+		final int index = indexOfKey(key);
+		return index < 0 ? null : removeAt(index);
+	}
+
+	@Override
+	public V remove(Object key) {
+		return key instanceof Long ? remove((long) (Long) key) : null;
+	}
+
+	/**
+	 * 位置の要素を削除.
+	 *
+	 * @param index 位置を設定します.
+	 * @return V 削除された値が返却されます.
+	 */
+	public V removeAt(int index) {
+		if (index >= size) {
+			throw new ArrayIndexOutOfBoundsException(index);
+		}
+		final V ret = (V) values[index];
+		System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+		System.arraycopy(values, index + 1, values, index, size - index - 1);
+		values[--size] = null;
+		modCount++;
+		return ret;
+	}
+
+	@Override
+	public void clear() {
+		if (size > 0) {
+			keys = EMPTY_KEYS;
+			values = EMPTY_VALUES;
+			size = 0;
+			modCount++;
+		}
+	}
+
+	@Override
+	public Set<Map.Entry<Long, V>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new AbstractSet<Map.Entry<Long, V>>() {
+				@Override
+				public Iterator<Map.Entry<Long, V>> iterator() {
+					return new EntryIterator();
+				}
+
+				@Override
+				public int size() {
+					return size;
+				}
+
+				@Override
+				public void clear() {
+					LongArrayMap.this.clear();
+				}
+			};
+		}
+		return entrySet;
+	}
+
+	// キーの昇順の反復子.
+	private final class EntryIterator implements Iterator<Map.Entry<Long, V>> {
+		private int next;
+		private int last = -1;
+		private int expected = modCount;
+
+		@Override
+		public boolean hasNext() {
+			return next < size;
+		}
+
+		@Override
+		public Map.Entry<Long, V> next() {
+			if (expected != modCount) {
+				throw new ConcurrentModificationException();
+			} else if (next >= size) {
+				throw new NoSuchElementException();
+			}
+			last = next++;
+			return new Entry(keys[last]);
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) {
+				throw new IllegalStateException();
+			} else if (expected != modCount) {
+				throw new ConcurrentModificationException();
+			}
+			removeAt(last);
+			next = last;
+			last = -1;
+			expected = modCount;
+		}
+	}
+
+	// キー単位のエントリ.
+	private final class Entry implements Map.Entry<Long, V> {
+		private final long key;
+
+		Entry(long key) {
+			this.key = key;
+		}
+
+		@Override
+		public Long getKey() {
+			return key;
+		}
+
+		@Override
+		public V getValue() {
+			return LongArrayMap.this.get(key);
+		}
+
+		@Override
+		public V setValue(V value) {
+			final int index = indexOfKey(key);
+			if (index < 0) {
+				throw new IllegalStateException("Entry was removed");
+			}
+			final V ret = (V) values[index];
+			values[index] = value;
+			return ret;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Map.Entry)) {
+				return false;
+			}
+			final Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+			return getKey().equals(e.getKey()) && Objects.equals(getValue(), e.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return Long.hashCode(key) ^ Objects.hashCode(getValue());
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + getValue();
+		}
+	}
+}
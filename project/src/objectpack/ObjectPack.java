@@ -1,6 +1,8 @@
 package objectpack;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
@@ -38,7 +40,7 @@ public final class ObjectPack {
 	 * @return String パック化されたオブジェクトが返却されます.
 	 */
 	public static final String pack(Object o) throws Exception {
-		return pack(o);
+		return pack(o, false);
 	}
 
 	/**
@@ -135,4 +137,99 @@ public final class ObjectPack {
 	public static final Object unpack(String o, Boolean gzip) throws Exception {
 		return unpackB(Base64.decode(o), gzip);
 	}
+
+	/**
+	 * 文字列からオブジェクトをアンパック.
+	 * StringBuilderなどから、文字列を生成せずにアンパックします.
+	 * 
+	 * @param o    対象の文字列を設定します.
+	 * @param gzip [true]の場合は、GZIP圧縮、[false]の場合は、Snappy圧縮、 [null]の場合は圧縮なしで処理します.
+	 * @return Object 変換されたオブジェクトが返却されます.
+	 */
+	public static final Object unpack(CharSequence o, Boolean gzip) throws Exception {
+		return unpackB(Base64.decode(o), gzip);
+	}
+
+	/**
+	 * ASCII文字のバイナリからオブジェクトをアンパック.
+	 * HTTPボディなどのBase64文字のバイナリから、文字列を生成せずにアンパックします.
+	 * 
+	 * @param b    対象のBase64文字のバイナリを設定します.
+	 * @param off  対象のオフセット値を設定します.
+	 * @param len  対象の長さを設定します.
+	 * @param gzip [true]の場合は、GZIP圧縮、[false]の場合は、Snappy圧縮、 [null]の場合は圧縮なしで処理します.
+	 * @return Object 変換されたオブジェクトが返却されます.
+	 */
+	public static final Object unpack(byte[] b, int off, int len, Boolean gzip) throws Exception {
+		return unpackB(Base64.decodeBinary(b, off, len), gzip);
+	}
+
+	/**
+	 * オブジェクトを文字列にパックして、追加先に追加.
+	 * 文字列を生成せずに、StringBuilderなどに直接追加します.
+	 * ※PrintStream 等の OutputStream を指定する pack と区別するため、メソッド名を分けています.
+	 * 
+	 * @param out  追加先のAppendableを設定します.
+	 * @param o    対象のオブジェクトを設定します.
+	 * @param gzip [true]の場合は、GZIP圧縮、[false]の場合は、Snappy圧縮、 [null]の場合は圧縮なしで処理します.
+	 * @return int 追加された文字数が返却されます.
+	 */
+	public static final int packTo(Appendable out, Object o, Boolean gzip) throws Exception {
+		byte[] bin = packB(o, gzip);
+		return Base64.encode(bin, 0, bin.length, out);
+	}
+
+	/**
+	 * オブジェクトを文字列にパックして、出力先に書き込み.
+	 * Base64文字列を生成せずに、変換しながらASCII文字で出力します.
+	 * ※出力先のOutputStreamはクローズしません.
+	 * 
+	 * @param out  出力先のOutputStreamを設定します.
+	 * @param o    対象のオブジェクトを設定します.
+	 * @param gzip [true]の場合は、GZIP圧縮、[false]の場合は、Snappy圧縮、 [null]の場合は圧縮なしで処理します.
+	 */
+	public static final void pack(OutputStream out, Object o, Boolean gzip) throws Exception {
+		Base64.EncodeOutputStream b64 = new Base64.EncodeOutputStream(out);
+		if (gzip == null) {
+			SerializableCore.encodeTo(b64, o);
+		} else if (gzip) {
+			GZIPOutputStream os = new GZIPOutputStream(b64);
+			SerializableCore.encodeTo(os, o);
+			os.finish();
+			os = null;
+		} else {
+			// Snappyは全体のバイナリが必要.
+			b64.write(packB(o, false));
+		}
+		b64.finish();
+		b64 = null;
+	}
+
+	/**
+	 * 入力元の文字列からオブジェクトをアンパック.
+	 * Base64文字列を生成せずに、読み込みながらデコードします.
+	 * ※入力元のInputStreamはクローズしません.
+	 * 
+	 * @param in   入力元のInputStreamを設定します.
+	 * @param gzip [true]の場合は、GZIP圧縮、[false]の場合は、Snappy圧縮、 [null]の場合は圧縮なしで処理します.
+	 * @return Object 変換されたオブジェクトが返却されます.
+	 */
+	public static final Object unpack(InputStream in, Boolean gzip) throws Exception {
+		int len;
+		byte[] bin = new byte[4096];
+		ByteArrayIO io = new ByteArrayIO();
+		InputStream i = new Base64.DecodeInputStream(in);
+		if (gzip != null && gzip) {
+			i = new GZIPInputStream(i);
+		}
+		while ((len = i.read(bin)) != -1) {
+			io.write(bin, 0, len);
+		}
+		bin = io.toByteArray();
+		io.close();
+		i = null;
+		io = null;
+		// GZIPは解凍済み.
+		return unpackB(bin, (gzip != null && gzip) ? null : gzip);
+	}
 }
@@ -0,0 +1,373 @@
+package objectpack;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * オープンアドレス法の Map.
+ *
+ * キー、値、ハッシュ値を登録順の配列に詰めて保持し、ハッシュテーブル(線形探索)には
+ * 要素番号のみを int 配列で保持します. HashMap のように要素毎のオブジェクトを生成せず、
+ * AndroidMap のように挿入時に配列をシフトしないため、要素数の多い Map に向いています.
+ *
+ * 反復順序は登録順となります. スレッドセーフではありません.
+ */
+@SuppressWarnings("unchecked")
+public final class OpenHashMap<K, V> extends AbstractMap<K, V> {
+
+	/** null キーの代替. **/
+	private static final Object NULL_KEY = new Object();
+
+	/** 削除済みの要素のキー. **/
+	private static final Object REMOVED = new Object();
+
+	/** 最小の要素数. **/
+	private static final int MIN_LENGTH = 4;
+
+	/** 最大のハッシュテーブルサイズ. **/
+	private static final int MAX_TABLE = 1 << 30;
+
+	/** 登録順のキー. **/
+	private Object[] keys;
+
+	/** 登録順の値. **/
+	private Object[] values;
+
+	/** 登録順のハッシュ値. **/
+	private int[] hashes;
+
+	/** ハッシュテーブル(要素番号+1、空きは0). **/
+	private int[] table;
+
+	/** 使用済みの要素数(削除済みを含む). **/
+	private int count;
+
+	/** 要素数. **/
+	private int size;
+
+	/** 変更回数. **/
+	private int modCount;
+
+	/** エントリセット. **/
+	private Set<Map.Entry<K, V>> entrySet;
+
+	/**
+	 * コンストラクタ.
+	 */
+	public OpenHashMap() {
+		this(0);
+	}
+
+	/**
+	 * コンストラクタ.
+	 *
+	 * @param capacity 初期の要素数を設定します.
+	 */
+	public OpenHashMap(int capacity) {
+		allocate(Math.max(capacity, MIN_LENGTH));
+	}
+
+	/**
+	 * コンストラクタ.
+	 *
+	 * @param map 初期の要素を設定します.
+	 */
+	public OpenHashMap(Map<? extends K, ? extends V> map) {
+		this(map.size());
+		putAll(map);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return find(key) >= 0;
+	}
+
+	@Override
+	public V get(Object key) {
+		final int n = find(key);
+		return n < 0 ? null : (V) values[n];
+	}
+
+	@Override
+	public V put(K key, V value) {
+		final Object k = key == null ? NULL_KEY : key;
+		final int h = hash(k);
+		int mask = table.length - 1;
+		int i = h & mask;
+		int e;
+		Object o;
+		while ((e = table[i]) != 0) {
+			e--;
+			if (hashes[e] == h && ((o = keys[e]) == k || o.equals(k))) {
+				final V ret = (V) values[e];
+				values[e] = value;
+				return ret;
+			}
+			i = (i + 1) & mask;
+		}
+		if (count == keys.length) {
+			// 削除済みを詰めて拡張し、挿入位置を再取得.
+			resize(Math.max(size << 1, MIN_LENGTH));
+			if (count == keys.length) {
+				throw new IllegalStateException("Map size exceeded: " + size);
+			}
+			mask = table.length - 1;
+			i = h & mask;
+			while (table[i] != 0) {
+				i = (i + 1) & mask;
+			}
+		}
+		final int n = count++;
+		keys[n] = k;
+		values[n] = value;
+		hashes[n] = h;
+		table[i] = n + 1;
+		size++;
+		modCount++;
+		return null;
+	}
+
+	@Override
+	public V remove(Object key) {
+		final int n = find(key);
+		if (n < 0) {
+			return null;
+		}
+		final V ret = (V) values[n];
+		removeAt(n);
+		return ret;
+	}
+
+	@Override
+	public void clear() {
+		if (count > 0) {
+			Arrays.fill(keys, 0, count, null);
+			Arrays.fill(values, 0, count, null);
+			Arrays.fill(table, 0);
+			count = 0;
+			size = 0;
+			modCount++;
+		}
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new AbstractSet<Map.Entry<K, V>>() {
+				@Override
+				public Iterator<Map.Entry<K, V>> iterator() {
+					return new EntryIterator();
+				}
+
+				@Override
+				public int size() {
+					return size;
+				}
+
+				@Override
+				public void clear() {
+					OpenHashMap.this.clear();
+				}
+			};
+		}
+		return entrySet;
+	}
+
+	// キーの要素番号を取得(存在しない場合は-1).
+	private final int find(Object key) {
+		final Object k = key == null ? NULL_KEY : key;
+		final int h = hash(k);
+		final int mask = table.length - 1;
+		int i = h & mask;
+		int e;
+		Object o;
+		while ((e = table[i]) != 0) {
+			e--;
+			if (hashes[e] == h && ((o = keys[e]) == k || o.equals(k))) {
+				return e;
+			}
+			i = (i + 1) & mask;
+		}
+		return -1;
+	}
+
+	// 要素を削除(ハッシュテーブルは後続の要素を詰める).
+	private final void removeAt(int n) {
+		final int mask = table.length - 1;
+		int i = hashes[n] & mask;
+		while (table[i] != n + 1) {
+			i = (i + 1) & mask;
+		}
+		int j = i;
+		int e, home;
+		while (true) {
+			j = (j + 1) & mask;
+			if ((e = table[j]) == 0) {
+				break;
+			}
+			home = hashes[e - 1] & mask;
+			// 本来の位置が空き位置より後ろ(循環)の場合は移動しない.
+			if (i <= j ? (i < home && home <= j) : (i < home || home <= j)) {
+				continue;
+			}
+			table[i] = e;
+			i = j;
+		}
+		table[i] = 0;
+		keys[n] = REMOVED;
+		values[n] = null;
+		size--;
+		modCount++;
+	}
+
+	// 配列を確保.
+	private final void allocate(int capacity) {
+		final int len = tableLength(capacity);
+		// 使用率が 1/2 を超えない要素数.
+		final int max = Math.max(MIN_LENGTH, len >> 1);
+		keys = new Object[max];
+		values = new Object[max];
+		hashes = new int[max];
+		table = new int[len];
+	}
+
+	// 削除済みを詰めて配列を再確保.
+	private final void resize(int capacity) {
+		final Object[] k = keys;
+		final Object[] v = values;
+		final int[] h = hashes;
+		final int len = count;
+		allocate(capacity);
+		final int mask = table.length - 1;
+		int n = 0, i;
+		for (int j = 0; j < len; j++) {
+			if (k[j] != REMOVED) {
+				keys[n] = k[j];
+				values[n] = v[j];
+				hashes[n] = h[j];
+				i = h[j] & mask;
+				while (table[i] != 0) {
+					i = (i + 1) & mask;
+				}
+				table[i] = ++n;
+			}
+		}
+		count = n;
+	}
+
+	// 要素数に対するハッシュテーブルのサイズを取得.
+	private static final int tableLength(int capacity) {
+		if (capacity >= MAX_TABLE >> 1) {
+			return MAX_TABLE;
+		}
+		return Integer.highestOneBit((capacity << 1) - 1) << 1;
+	}
+
+	// ハッシュ値を取得(上位ビットを下位に混ぜる).
+	private static final int hash(Object k) {
+		final int h = k.hashCode() * 0x9e3779b9;
+		return h ^ (h >>> 16);
+	}
+
+	// 登録順の反復子.
+	private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+		private int next = skip(0);
+		private int last = -1;
+		private int expected = modCount;
+
+		@Override
+		public boolean hasNext() {
+			return next < count;
+		}
+
+		@Override
+		public Map.Entry<K, V> next() {
+			if (expected != modCount) {
+				throw new ConcurrentModificationException();
+			} else if (next >= count) {
+				throw new NoSuchElementException();
+			}
+			last = next;
+			next = skip(next + 1);
+			return new Entry(last);
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) {
+				throw new IllegalStateException();
+			} else if (expected != modCount) {
+				throw new ConcurrentModificationException();
+			}
+			removeAt(last);
+			last = -1;
+			expected = modCount;
+		}
+
+		// 削除済みの要素を読み飛ばす.
+		private final int skip(int n) {
+			while (n < count && keys[n] == REMOVED) {
+				n++;
+			}
+			return n;
+		}
+	}
+
+	// 要素番号単位のエントリ.
+	private final class Entry implements Map.Entry<K, V> {
+		private final int n;
+
+		Entry(int n) {
+			this.n = n;
+		}
+
+		@Override
+		public K getKey() {
+			final Object k = keys[n];
+			return k == NULL_KEY ? null : (K) k;
+		}
+
+		@Override
+		public V getValue() {
+			return (V) values[n];
+		}
+
+		@Override
+		public V setValue(V value) {
+			final V ret = (V) values[n];
+			values[n] = value;
+			return ret;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Map.Entry)) {
+				return false;
+			}
+			final Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+			return Objects.equals(getKey(), e.getKey()) && Objects.equals(getValue(), e.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+		}
+
+		@Override
+		public String toString() {
+			return getKey() + "=" + getValue();
+		}
+	}
+}
@@ -0,0 +1,308 @@
+package objectpack;
+
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * int配列、long配列のビットパック変換.
+ *
+ * ソート済みのIDやタイムスタンプのように値の近い配列は、最小値との差分(フレームオブリファレンス)
+ * または前要素との差分(デルタ)を必要なビット数で詰めて出力します.
+ * 通常の要素単位の出力より小さくなる場合のみ利用されます.
+ *
+ * フォーマット: [長さ(byte4)][方式(byte1)][基準値(byte8)][ビット数(byte1)][パックデータ].
+ */
+final class PackedArray {
+	private PackedArray() {
+	}
+
+	/** ビットパックを行う最小の要素数. **/
+	private static final int MIN_LENGTH = 8;
+
+	/** パックする最大ビット数. **/
+	private static final int MAX_BITS = 56;
+
+	/** ヘッダ部の最大長. **/
+	private static final int HEADER_LENGTH = 16;
+
+	/** 方式: 最小値からの差分. **/
+	private static final int FOR = 0;
+
+	/** 方式: 前要素からの差分(ZigZag). **/
+	private static final int DELTA = 1;
+
+	/** リトルエンディアンでの8バイト読み込み. **/
+	private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class,
+			ByteOrder.LITTLE_ENDIAN);
+
+	/**
+	 * int配列をビットパックで出力.
+	 *
+	 * @param buf 対象のバッファを設定します.
+	 * @param v   対象の配列を設定します.
+	 * @return boolean [true]の場合、出力されました.
+	 * @exception Exception 例外.
+	 */
+	static final boolean encode(OutputStream buf, int[] v) throws Exception {
+		final int len = v.length;
+		if (len < MIN_LENGTH) {
+			return false;
+		}
+		long min = v[0], max = v[0], zz = 0L, plain = 0L, d;
+		long x, prev = v[0];
+		for (int i = 0; i < len; i++) {
+			x = v[i];
+			if (x < min) {
+				min = x;
+			} else if (x > max) {
+				max = x;
+			}
+			d = x - prev;
+			zz |= (d << 1) ^ (d >> 63);
+			prev = x;
+			plain += size(v[i] & 0xffffffffL);
+		}
+		final int forBits = bits(max - min);
+		final int deltaBits = bits(zz);
+		final boolean delta = (long) deltaBits * (len - 1) < (long) forBits * len;
+		final int bits = delta ? deltaBits : forBits;
+		final int n = delta ? len - 1 : len;
+		if (bytes(n, bits) + HEADER_LENGTH >= plain) {
+			return false;
+		}
+		SerializableCore.head(buf, 37); // パックされたint配列.
+		SerializableCore.byte4(buf, len);
+		SerializableCore.byte1(buf, delta ? DELTA : FOR);
+		SerializableCore.byte8(buf, delta ? v[0] : min);
+		SerializableCore.byte1(buf, bits);
+		final byte[] out = new byte[bytes(n, bits)];
+		long acc = 0L, u;
+		int accBits = 0, p = 0;
+		for (int i = delta ? 1 : 0; i < len; i++) {
+			if (delta) {
+				d = (long) v[i] - v[i - 1];
+				u = (d << 1) ^ (d >> 63);
+			} else {
+				u = v[i] - min;
+			}
+			acc |= u << accBits;
+			accBits += bits;
+			while (accBits >= 8) {
+				out[p++] = (byte) acc;
+				acc >>>= 8;
+				accBits -= 8;
+			}
+		}
+		if (accBits > 0) {
+			out[p] = (byte) acc;
+		}
+		buf.write(out);
+		return true;
+	}
+
+	/**
+	 * long配列をビットパックで出力.
+	 *
+	 * @param buf 対象のバッファを設定します.
+	 * @param v   対象の配列を設定します.
+	 * @return boolean [true]の場合、出力されました.
+	 * @exception Exception 例外.
+	 */
+	static final boolean encode(OutputStream buf, long[] v) throws Exception {
+		final int len = v.length;
+		if (len < MIN_LENGTH) {
+			return false;
+		}
+		long min = v[0], max = v[0], zz = 0L, plain = 0L, d;
+		long x, prev = v[0];
+		for (int i = 0; i < len; i++) {
+			x = v[i];
+			if (x < min) {
+				min = x;
+			} else if (x > max) {
+				max = x;
+			}
+			d = x - prev;
+			zz |= (d << 1) ^ (d >> 63);
+			prev = x;
+			plain += size(x);
+		}
+		// 差分がオーバーフローする場合は符号なしのビット数として扱う.
+		final int forBits = bits(max - min);
+		final int deltaBits = bits(zz);
+		final boolean delta = (long) deltaBits * (len - 1) < (long) forBits * len;
+		final int bits = delta ? deltaBits : forBits;
+		final int n = delta ? len - 1 : len;
+		if (bits > MAX_BITS || bytes(n, bits) + HEADER_LENGTH >= plain) {
+			return false;
+		}
+		SerializableCore.head(buf, 38); // パックされたlong配列.
+		SerializableCore.byte4(buf, len);
+		SerializableCore.byte1(buf, delta ? DELTA : FOR);
+		SerializableCore.byte8(buf, delta ? v[0] : min);
+		SerializableCore.byte1(buf, bits);
+		final byte[] out = new byte[bytes(n, bits)];
+		long acc = 0L, u;
+		int accBits = 0, p = 0;
+		for (int i = delta ? 1 : 0; i < len; i++) {
+			if (delta) {
+				d = v[i] - v[i - 1];
+				u = (d << 1) ^ (d >> 63);
+			} else {
+				u = v[i] - min;
+			}
+			acc |= u << accBits;
+			accBits += bits;
+			while (accBits >= 8) {
+				out[p++] = (byte) acc;
+				acc >>>= 8;
+				accBits -= 8;
+			}
+		}
+		if (accBits > 0) {
+			out[p] = (byte) acc;
+		}
+		buf.write(out);
+		return true;
+	}
+
+	/**
+	 * ビットパックされたint配列を復元.
+	 *
+	 * @param pos 対象のポジションを設定します.
+	 * @param b   対象のバイナリを設定します.
+	 * @return int[] 復元された配列が返却されます.
+	 */
+	static final int[] decodeInt(int[] pos, byte[] b) {
+		final int len = SerializableCore.byte4Int(b, pos);
+		final int mode = SerializableCore.byte1Int(b, pos);
+		final long base = SerializableCore.byte8Long(b, pos);
+		final int bits = SerializableCore.byte1Int(b, pos);
+		final int[] ret = new int[len];
+		final long mask = (1L << bits) - 1L;
+		final int end = pos[0] + bytes(mode == DELTA ? len - 1 : len, bits);
+		final int safe = b.length - 8;
+		long bp = (long) pos[0] << 3L, u;
+		if (mode == DELTA) {
+			int v = (int) base;
+			ret[0] = v;
+			for (int i = 1; i < len; i++, bp += bits) {
+				u = word(b, bp, safe, bits, mask);
+				ret[i] = v += (int) ((u >>> 1) ^ -(u & 1L));
+			}
+		} else {
+			for (int i = 0; i < len; i++, bp += bits) {
+				ret[i] = (int) (base + word(b, bp, safe, bits, mask));
+			}
+		}
+		pos[0] = end;
+		return ret;
+	}
+
+	/**
+	 * ビットパックされたlong配列を復元.
+	 *
+	 * @param pos 対象のポジションを設定します.
+	 * @param b   対象のバイナリを設定します.
+	 * @return long[] 復元された配列が返却されます.
+	 */
+	static final long[] decodeLong(int[] pos, byte[] b) {
+		final int len = SerializableCore.byte4Int(b, pos);
+		final int mode = SerializableCore.byte1Int(b, pos);
+		final long base = SerializableCore.byte8Long(b, pos);
+		final int bits = SerializableCore.byte1Int(b, pos);
+		final long[] ret = new long[len];
+		final long mask = (1L << bits) - 1L;
+		final int end = pos[0] + bytes(mode == DELTA ? len - 1 : len, bits);
+		final int safe = b.length - 8;
+		long bp = (long) pos[0] << 3L, u;
+		if (mode == DELTA) {
+			long v = base;
+			ret[0] = v;
+			for (int i = 1; i < len; i++, bp += bits) {
+				u = word(b, bp, safe, bits, mask);
+				ret[i] = v += (u >>> 1) ^ -(u & 1L);
+			}
+		} else {
+			for (int i = 0; i < len; i++, bp += bits) {
+				ret[i] = base + word(b, bp, safe, bits, mask);
+			}
+		}
+		pos[0] = end;
+		return ret;
+	}
+
+	/**
+	 * 0以上の int 値群をビットパックで出力.
+	 *
+	 * @param buf  対象のバッファを設定します.
+	 * @param v    対象の値群を設定します.
+	 * @param len  対象の要素数を設定します.
+	 * @param bits 1要素のビット数を設定します.
+	 * @exception Exception 例外.
+	 */
+	static final void pack(OutputStream buf, int[] v, int len, int bits) throws Exception {
+		final byte[] out = new byte[bytes(len, bits)];
+		long acc = 0L;
+		int accBits = 0, p = 0;
+		for (int i = 0; i < len; i++) {
+			acc |= (long) v[i] << accBits;
+			accBits += bits;
+			while (accBits >= 8) {
+				out[p++] = (byte) acc;
+				acc >>>= 8;
+				accBits -= 8;
+			}
+		}
+		if (accBits > 0) {
+			out[p] = (byte) acc;
+		}
+		buf.write(out);
+	}
+
+	/**
+	 * ビットパックされた配列を読み飛ばす.
+	 *
+	 * @param pos 対象のポジションを設定します.
+	 * @param b   対象のバイナリを設定します.
+	 */
+	static final void skip(int[] pos, byte[] b) {
+		final int len = SerializableCore.byte4Int(b, pos);
+		final int mode = SerializableCore.byte1Int(b, pos);
+		SerializableCore.byte8Long(b, pos);
+		final int bits = SerializableCore.byte1Int(b, pos);
+		pos[0] += bytes(mode == DELTA ? len - 1 : len, bits);
+	}
+
+	// 指定ビット位置から1要素を取得.
+	// バイナリの終端8バイトまでは、8バイト単位でまとめて読み込む(範囲外のビットはマスクで除外).
+	static final long word(byte[] b, long bp, int safe, int bits, long mask) {
+		final int p = (int) (bp >>> 3L);
+		final int shift = (int) (bp & 7L);
+		if (p <= safe) {
+			return ((long) LONG_LE.get(b, p) >>> shift) & mask;
+		}
+		long ret = 0L;
+		for (int i = 0, n = (shift + bits + 7) >> 3; i < n; i++) {
+			ret |= (b[p + i] & 0xffL) << (i << 3);
+		}
+		return (ret >>> shift) & mask;
+	}
+
+	// 値の表現に必要なビット数.
+	static final int bits(long v) {
+		return 64 - Long.numberOfLeadingZeros(v);
+	}
+
+	// パックデータのバイト数.
+	static final int bytes(int n, int bits) {
+		return (int) (((long) n * bits + 7L) >> 3);
+	}
+
+	// 通常出力時の1要素の最小バイト数.
+	private static final int size(long v) {
+		return v == 0L ? 1 : (bits(v) + 7) >> 3;
+	}
+}
@@ -1,19 +1,36 @@
 package objectpack;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
 import java.lang.reflect.Array;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 
 /**
  * シリアライズコアオブジェクト.
@@ -24,6 +41,125 @@ public final class SerializableCore {
 	
 	/** 拡張変換処理. **/
 	private static SerializableOriginCode ORIGIN_CODE = null;
+
+	/** デコード時の Map の生成処理. **/
+	private static IntFunction<Map<Object, Object>> MAP_FACTORY = null;
+
+	/** デコード時に OpenHashMap で復元する Map の最小の要素数. **/
+	static final int LARGE_MAP_LENGTH = 64;
+
+	/**
+	 * エンコードモード: Serializable なオブジェクトを全て Java シリアライズで変換.
+	 * 
+	 * 指定しない場合、Serializable でも writeObject 等の独自処理を持たないクラスと
+	 * レコードは、フィールド単位で変換されます.
+	 */
+	public static final int MODE_JAVA_SERIALIZE = 0x0001;
+
+	/**
+	 * エンコードモード: Java シリアライズで変換するオブジェクトを1つのストリームで共有.
+	 * 
+	 * 1回のエンコード内の Serializable なオブジェクトを1つの ObjectOutputStream に書き込み、
+	 * クラス定義の重複出力を無くします. 同一のオブジェクトは出力済みの番号で参照されます.
+	 */
+	public static final int MODE_SHARED_SERIAL = 0x0002;
+
+	/**
+	 * エンコードモード: オブジェクトの同一性を保持.
+	 * 
+	 * 配列、List、Map、Set、及びフィールド単位等で変換するオブジェクトが2回以上出現した場合、
+	 * 2回目以降は出力済みの番号で参照されます. デコード時には同じインスタンスが復元され、
+	 * 循環参照も変換できます.
+	 */
+	public static final int MODE_REFERENCE = 0x0004;
+
+	/**
+	 * エンコードモード: コンテナにバイト長を付与.
+	 * 
+	 * 配列、List、Map、Set の前に4バイト固定長のバイト長を出力します.
+	 * デコード時に skipObject で子要素を解析せずに読み飛ばせるため、
+	 * 大きなデータから一部の要素のみを取り出す場合に利用します.
+	 * このモードではフィールド定義の共有は行われず、MODE_REFERENCE と同時に指定した場合は無効となります.
+	 * また再帰の深さが上限を超える階層のコンテナには付与されません.
+	 */
+	public static final int MODE_SKIPPABLE = 0x0008;
+
+	/**
+	 * エンコードモード: 要素数の多い Object配列、List に索引を付与.
+	 * 
+	 * 各要素の開始位置の索引を出力し、get、decodeLazy で先頭から読み飛ばさずに要素を取得できるようにします.
+	 * このモードではフィールド定義の共有は行われず、MODE_REFERENCE と同時に指定した場合は無効となります.
+	 * また再帰の深さが上限を超える階層のコンテナには付与されません.
+	 */
+	public static final int MODE_INDEXED = 0x0010;
+
+	/**
+	 * エンコードモード: キーが全て String の Map をキー順に並べ替えて索引を付与.
+	 * 
+	 * 要素数の多い Map のキーをコードポイント順に並べ替えて出力し、get、decodeLazy で
+	 * バイナリ上のキーを二分探索で取得できるようにします. キーの出力順は Map の反復順に依存しません.
+	 * このモードではフィールド定義の共有は行われず、MODE_REFERENCE と同時に指定した場合は無効となります.
+	 * また再帰の深さが上限を超える階層の Map には索引は付与されず、キーの並べ替えのみ行われます.
+	 */
+	public static final int MODE_SORTED = 0x0020;
+
+	/**
+	 * エンコードモード: 正規化したバイナリを出力.
+	 * 
+	 * Map のキー、Set の要素、列形式の列を一定の順序(CanonicalOrder)に並べ替えて出力します.
+	 * 文字情報の番号は出現順に付与されるため、内容の等しいオブジェクトは Map、Set の実装や
+	 * 反復順に関わらず同じバイナリになり、バイナリのハッシュ値で同一性を判定できます.
+	 * ただし Serializable で出力されるオブジェクトの内部は対象外です.
+	 */
+	public static final int MODE_CANONICAL = 0x0040;
+
+	/**
+	 * エンコードモード: Serializable ではない通常のクラスもフィールド単位で変換.
+	 * 
+	 * 指定しない場合、フィールド単位で変換されるのはレコードと Serializable なクラスのみで、
+	 * それ以外のオブジェクトは null となります. このモードでは引数なしのコンストラクタを持つクラスの
+	 * static, transient 以外の全てのフィールドが出力されるため、接続や認証情報等の出力してはならない
+	 * フィールドを持つクラスが含まれないことを確認して指定してください.
+	 * 復元時は DECODE_PLAIN_FIELDS の指定が必要です.
+	 */
+	public static final int MODE_PLAIN_FIELDS = 0x0080;
+
+	/**
+	 * デコードオプション: Map を変更不可の FrozenMap で復元.
+	 * 
+	 * 読み込みのみで利用する Map のキーの検索が、ハッシュテーブルの探索(多くは1回)で完了するようになります.
+	 * 復元後の Map は変更できません. また同一性を保持したバイナリ(MODE_REFERENCE)の場合は、
+	 * 循環参照を復元するため対象外となります.
+	 */
+	public static final int DECODE_FROZEN = 0x0001;
+
+	/**
+	 * デコードオプション: キーが全て Integer、または全て Long の Map を IntArrayMap、LongArrayMap で復元.
+	 * 
+	 * キーをプリミティブ配列で保持するため、キーのボックス化が不要となりメモリ使用量が減ります.
+	 * DECODE_FROZEN と同時に指定した場合は、こちらが優先されます(復元後の Map は変更可能です).
+	 * また同一性を保持したバイナリ(MODE_REFERENCE)の場合は対象外となります.
+	 */
+	public static final int DECODE_PRIMITIVE_KEYS = 0x0002;
+
+	/**
+	 * デコードオプション: Serializable ではない通常のクラスもフィールド単位で復元.
+	 * 
+	 * 指定しない場合、フィールド単位で復元するのはレコードと Serializable なクラスのみで、
+	 * それ以外のクラスのフィールド定義は IOException となります.
+	 * MODE_PLAIN_FIELDS で変換した、信頼できるバイナリの場合のみ指定してください.
+	 * get、decodeLazy では指定できません.
+	 */
+	public static final int DECODE_PLAIN_FIELDS = 0x0004;
+
+	/** ヘッダ: 文字情報集約先の後に拡張情報が存在. **/
+	static final int HEAD_EXTENSION = 0x80000000;
+
+	/** 拡張情報: Serializable 共有ストリーム. **/
+	private static final int EXTENSION_SHARED_SERIAL = 0x0001;
+
+	/** 拡張情報: オブジェクトの同一性を保持. **/
+	private static final int EXTENSION_REFERENCE = 0x0002;
 	
 	/**
 	 * 拡張変換処理を追加.
@@ -41,6 +177,48 @@ public final class SerializableCore {
 		return ORIGIN_CODE != null;
 	}
 
+	// 拡張変換処理を取得.
+	static final SerializableOriginCode originCode() {
+		return ORIGIN_CODE;
+	}
+
+	/**
+	 * デコード時の Map の生成処理を設定.
+	 *
+	 * 生成処理には復元する Map の要素数が渡されます. 設定しない場合([null]を設定した場合)、
+	 * 要素数が少ない Map は AndroidMap、多い Map は OpenHashMap で復元されます.
+	 *
+	 * @param factory Map の生成処理を設定します.
+	 */
+	public static final void setMapFactory(IntFunction<Map<Object, Object>> factory) {
+		MAP_FACTORY = factory;
+	}
+
+	/**
+	 * デコード時の Map を生成.
+	 *
+	 * @param len 要素数を設定します.
+	 * @return Map 空の Map が返却されます.
+	 */
+	static final Map<Object, Object> newMap(int len) {
+		if (MAP_FACTORY != null) {
+			return MAP_FACTORY.apply(len);
+		} else if (len < LARGE_MAP_LENGTH) {
+			return new AndroidMap<Object, Object>(len);
+		}
+		return new OpenHashMap<Object, Object>(len);
+	}
+
+	/**
+	 * デコード時の Set を生成.
+	 *
+	 * @param len 要素数を設定します.
+	 * @return Set 要素数で初期サイズを設定した空の Set が返却されます.
+	 */
+	static final Set<Object> newSet(int len) {
+		return new HashSet<Object>(Math.max((int) (len / .75f) + 1, 16));
+	}
+
 	/**
 	 * オブジェクトをバイナリに変換.
 	 * 
@@ -49,7 +227,19 @@ public final class SerializableCore {
 	 * @exception Exception 例外.
 	 */
 	public static final byte[] encode(Object o) throws Exception {
-		return encode(null, o);
+		return encode(null, o, 0);
+	}
+
+	/**
+	 * オブジェクトをバイナリに変換.
+	 * 
+	 * @param o    対象のオブジェクトを設定します.
+	 * @param mode エンコードモードを設定します.
+	 * @return byte[] 変換されたバイナリ情報が返却されます.
+	 * @exception Exception 例外.
+	 */
+	public static final byte[] encode(Object o, int mode) throws Exception {
+		return encode(null, o, mode);
 	}
 	
 	private static final byte[] ZERO4_BIN = new byte[] { (byte) 0, (byte) 0, (byte) 0, (byte) 0 };
@@ -62,17 +252,70 @@ public final class SerializableCore {
 	 * @exception Exception 例外.
 	 */
 	public static final byte[] encode(ByteArrayIO buf, Object o) throws Exception {
+		return encode(buf, o, 0);
+	}
+
+	/**
+	 * オブジェクトをバイナリに変換.
+	 *
+	 * @parma buf 対象のバッファオブジェクトを設定します.
+	 * @param o    対象のオブジェクトを設定します.
+	 * @param mode エンコードモードを設定します.
+	 * @return byte[] 変換されたバイナリ情報が返却されます.
+	 * @exception Exception 例外.
+	 */
+	public static final byte[] encode(ByteArrayIO buf, Object o, int mode) throws Exception {
 		if (buf == null) {
 			buf = new ByteArrayIO();
 		}
+		encodeBuffer(buf, o, mode);
+		byte[] b = buf.toByteArray();
+		buf.clear();
+		return b;
+	}
+
+	/**
+	 * オブジェクトをバイナリに変換して出力.
+	 * 変換結果を1つのバイナリにまとめずに、出力先に書き込みます.
+	 *
+	 * @param out 出力先のOutputStreamを設定します.
+	 * @param o   対象のオブジェクトを設定します.
+	 * @exception Exception 例外.
+	 */
+	public static final void encodeTo(OutputStream out, Object o) throws Exception {
+		encodeTo(out, o, 0);
+	}
+
+	/**
+	 * オブジェクトをバイナリに変換して出力.
+	 * 変換結果を1つのバイナリにまとめずに、出力先に書き込みます.
+	 *
+	 * @param out  出力先のOutputStreamを設定します.
+	 * @param o    対象のオブジェクトを設定します.
+	 * @param mode エンコードモードを設定します.
+	 * @exception Exception 例外.
+	 */
+	public static final void encodeTo(OutputStream out, Object o, int mode) throws Exception {
+		ByteArrayIO buf = new ByteArrayIO();
+		encodeBuffer(buf, o, mode);
+		buf.outputStream(out);
+		buf.close();
+	}
+
+	// オブジェクトをバイナリに変換して、バッファに格納.
+	private static final void encodeBuffer(ByteArrayIO buf, Object o, int mode) throws Exception {
 		// 文字情報の集約先を生成.
-		Map<String, Integer> stringCode = new AndroidMap<>();
+		Map<String, Integer> stringCode = new StringCodeMap();
 
 		// 文字情報集約先の書き込み処理(4).
 		buf.write(ZERO4_BIN);
 
 		// オブジェクト変換(4+n).
-		encodeObject(stringCode, buf, o);
+		final EncodeContext ctx = new EncodeContext(stringCode, mode, true);
+		encodeObject(ctx, buf, o);
+
+		// コンテナのバイト長をセット.
+		ctx.flushSkipLength(buf);
 
 		// 文字情報格納位置を取得(endPoint=4+n).
 		int endPoint = buf.size();
@@ -80,17 +323,55 @@ public final class SerializableCore {
 		// 集約文字情報の格納(m).
 		convertExtractionString(buf, stringCode);
 
-		// 先頭に文字情報集約先のアドレスをセット(b.length = 4 + n + m).
-		byte[] b = buf.toByteArray();
-		buf.clear();
+		// 拡張情報の格納.
+		if (encodeExtension(ctx, buf)) {
+			endPoint |= HEAD_EXTENSION;
+		}
 
-		// 先頭に文字情報集約先のアドレスをセット.
-		b[0] = (byte) (endPoint  & 0x000000ff);
-		b[1] = (byte) ((endPoint & 0x0000ff00) >> 8);
-		b[2] = (byte) ((endPoint & 0x00ff0000) >> 16);
-		b[3] = (byte) ((endPoint & 0xff000000) >> 24);
+		// 先頭に文字情報集約先のアドレスをセット(length = 4 + n + m).
+		buf.set(0, endPoint & 0x000000ff);
+		buf.set(1, (endPoint & 0x0000ff00) >> 8);
+		buf.set(2, (endPoint & 0x00ff0000) >> 16);
+		buf.set(3, (endPoint & 0xff000000) >> 24);
+	}
 
-		return b;
+	// 拡張情報の格納.
+	// 拡張情報が無い場合は何も出力せずに[false]を返却します.
+	private static final boolean encodeExtension(EncodeContext ctx, ByteArrayIO buf) throws Exception {
+		int flags = 0;
+		if (ctx.serialBuf != null) {
+			flags |= EXTENSION_SHARED_SERIAL;
+		}
+		if (ctx.reference != null) {
+			flags |= EXTENSION_REFERENCE;
+		}
+		if (flags == 0) {
+			return false;
+		}
+		byte4(buf, flags);
+		if ((flags & EXTENSION_SHARED_SERIAL) != 0) {
+			// Serializable 共有ストリーム.
+			ctx.serialOut.close();
+			byte4(buf, ctx.serialBuf.size());
+			ctx.serialBuf.outputStream(buf);
+			ctx.serialBuf.close();
+		}
+		return true;
+	}
+
+	// 拡張情報の読み込み.
+	static final void decodeExtension(DecodeContext ctx, byte[] b, int[] p) throws Exception {
+		final int flags = byte4Int(b, p);
+		if ((flags & EXTENSION_SHARED_SERIAL) != 0) {
+			// Serializable 共有ストリーム.
+			final int len = byte4Int(b, p);
+			ctx.serialBlock(b, p[0], len);
+			p[0] += len;
+		}
+		if ((flags & EXTENSION_REFERENCE) != 0) {
+			// オブジェクトの同一性を保持.
+			ctx.reference = new ArrayList<Object>();
+		}
 	}
 
 	/**
@@ -104,6 +385,18 @@ public final class SerializableCore {
 		return decode(b, 0, b.length);
 	}
 
+	/**
+	 * バイナリをオブジェクトに変換.
+	 * 
+	 * @param b      対象のバイナリを設定します.
+	 * @param option デコードオプション(DECODE_*)を設定します.
+	 * @return Object 変換されたオブジェクトが返却されます.
+	 * @exception Exception 例外.
+	 */
+	public static final Object decode(byte[] b, int option) throws Exception {
+		return decode(b, new int[] { 0 }, b.length, option);
+	}
+
 	/**
 	 * バイナリをオブジェクトに変換.
 	 * 
@@ -128,6 +421,20 @@ public final class SerializableCore {
 	 * @exception Exception 例外.
 	 */
 	public static final Object decode(byte[] b, int[] p, int len) throws Exception {
+		return decode(b, p, len, 0);
+	}
+
+	/**
+	 * バイナリをオブジェクトに変換.
+	 * 
+	 * @param b      対象のバイナリを設定します.
+	 * @param p      対象のオフセット値を設定します.
+	 * @param len    対象の長さを設定します.
+	 * @param option デコードオプション(DECODE_*)を設定します.
+	 * @return Object 変換されたオブジェクトが返却されます.
+	 * @exception Exception 例外.
+	 */
+	public static final Object decode(byte[] b, int[] p, int len, int option) throws Exception {
 		// ポジションバックアップ・
 		int pos = p[0];
 
@@ -140,14 +447,103 @@ public final class SerializableCore {
 			((b[pos + 2] & 0x000000ff) << 16) |
 			((b[pos + 3] & 0x000000ff) << 24));
 
+		// 拡張情報の有無.
+		final boolean extension = (endPoint & HEAD_EXTENSION) != 0;
+		endPoint &= ~HEAD_EXTENSION;
+
 		// 文字情報集約先の情報を取得.
-		p[0] = endPoint;
+		// (endpoint は先頭からの相対位置).
+		p[0] = pos + endPoint;
 		String[] stringMap = getExtractionString(b, p);
+		final DecodeContext ctx = new DecodeContext(stringMap);
+		ctx.option = option;
+
+		// 拡張情報の読み込み.
+		if (extension) {
+			decodeExtension(ctx, b, p);
+		}
 
 		// バックアップしたポジション情報を元に、データ解析.
 		p[0] = pos + 4;
-		len = endPoint;
-		return decodeObject(stringMap, p, b, len);
+		len = pos + endPoint;
+		return decodeObject(ctx, p, b, len);
+	}
+
+	/**
+	 * バイナリを遅延デコード.
+	 * 
+	 * Map、List は元のバイナリを直接参照するビューとして返却し、要素は参照時に復元して保持します.
+	 * 一部のキーのみを参照するメッセージでは、参照しない要素の Map、List、文字列を生成しません.
+	 * 返却されたビューの利用中は、元のバイナリを変更しないでください.
+	 * また、同一性保持(MODE_REFERENCE)と拡張変換処理が有効な場合は、通常のデコードと同じ結果になります.
+	 * 
+	 * @param b 対象のバイナリを設定します.
+	 * @return Object 変換されたオブジェクトが返却されます.
+	 * @exception Exception 例外.
+	 */
+	public static final Object decodeLazy(byte[] b) throws Exception {
+		return SerializablePath.lazy(b, 0, b.length);
+	}
+
+	/**
+	 * バイナリを遅延デコード.
+	 * 
+	 * @param b   対象のバイナリを設定します.
+	 * @param off 対象のオフセット値を設定します.
+	 * @param len 対象の長さを設定します.
+	 * @return Object 変換されたオブジェクトが返却されます.
+	 * @exception Exception 例外.
+	 */
+	public static final Object decodeLazy(byte[] b, int off, int len) throws Exception {
+		return SerializablePath.lazy(b, off, len);
+	}
+
+	/**
+	 * バイナリからパスで指定された値のみを取得.
+	 * 
+	 * "a.b[3].c" のように、Mapのキー名を'.'区切りで、List、配列のインデックスを[n]で指定します.
+	 * 指定された値以外は Map や List を生成せずに読み飛ばします.
+	 * 
+	 * @param b    対象のバイナリを設定します.
+	 * @param path 対象のパスを設定します.
+	 * @return Object 指定された値が返却されます. 存在しない場合は[null]が返却されます.
+	 * @exception Exception 例外.
+	 */
+	public static final Object get(byte[] b, String path) throws Exception {
+		return SerializablePath.get(b, 0, b.length, path);
+	}
+
+	/**
+	 * バイナリからパスで指定された値のみを取得.
+	 * 
+	 * @param b    対象のバイナリを設定します.
+	 * @param off  対象のオフセット値を設定します.
+	 * @param len  対象の長さを設定します.
+	 * @param path 対象のパスを設定します.
+	 * @return Object 指定された値が返却されます. 存在しない場合は[null]が返却されます.
+	 * @exception Exception 例外.
+	 */
+	public static final Object get(byte[] b, int off, int len, String path) throws Exception {
+		return SerializablePath.get(b, off, len, path);
+	}
+
+	/**
+	 * バイナリからパスで指定された値のみを取得.
+	 * 
+	 * 対象の ByteBuffer のポジションは変更されません.
+	 * 
+	 * @param buf  対象のバッファを設定します.
+	 * @param path 対象のパスを設定します.
+	 * @return Object 指定された値が返却されます. 存在しない場合は[null]が返却されます.
+	 * @exception Exception 例外.
+	 */
+	public static final Object get(ByteBuffer buf, String path) throws Exception {
+		if (buf.hasArray()) {
+			return SerializablePath.get(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining(), path);
+		}
+		final byte[] b = new byte[buf.remaining()];
+		buf.duplicate().get(b);
+		return SerializablePath.get(b, 0, b.length, path);
 	}
 
 	/** 1バイトバイナリ変換. **/
@@ -361,8 +757,8 @@ public final class SerializableCore {
 				return (long) (((b[o + 1] & 0xff) << 16) | ((b[o + 2] & 0xff) << 8) | (b[o + 3] & 0xff));
 			case 4:
 				off[0] += 5;
-				return (long) (((b[o + 1] & 0xff) << 24) | ((b[o + 2] & 0xff) << 16) | ((b[o + 3] & 0xff) << 8)
-						| (b[o + 4] & 0xff));
+				return ((b[o + 1] & 0xffL) << 24L) | ((b[o + 2] & 0xffL) << 16L) | ((b[o + 3] & 0xffL) << 8L)
+						| (b[o + 4] & 0xffL);
 			case 5:
 				off[0] += 6;
 				return (long) (((b[o + 1] & 0xffL) << 32L) | ((b[o + 2] & 0xffL) << 24L) | ((b[o + 3] & 0xffL) << 16L)
@@ -421,6 +817,21 @@ public final class SerializableCore {
 		throw new IllegalArgumentException("Invalid byte 8 long condition: " + off[0]);
 	}
 
+	/** 8バイト固定長バイナリ変換. **/
+	public static final void fixed8(OutputStream buf, long b) throws Exception {
+		buf.write(new byte[] { (byte) (b >> 56L), (byte) (b >> 48L), (byte) (b >> 40L), (byte) (b >> 32L),
+				(byte) (b >> 24L), (byte) (b >> 16L), (byte) (b >> 8L), (byte) b });
+	}
+
+	/** 8バイト固定長バイナリ変換. **/
+	public static final long fixed8Long(byte[] b, int[] off) {
+		final int o = off[0];
+		off[0] += 8;
+		return ((b[o] & 0xffL) << 56L) | ((b[o + 1] & 0xffL) << 48L) | ((b[o + 2] & 0xffL) << 40L)
+				| ((b[o + 3] & 0xffL) << 32L) | ((b[o + 4] & 0xffL) << 24L) | ((b[o + 5] & 0xffL) << 16L)
+				| ((b[o + 6] & 0xffL) << 8L) | (b[o + 7] & 0xffL);
+	}
+
 	/**
 	 * 抽出シーケンス文字列のバイナリ化.
 	 *
@@ -431,6 +842,17 @@ public final class SerializableCore {
 		byte[] b;
 		String key;
 		int len = ext.size();
+		if (ext instanceof StringCodeMap) {
+			// 登録順がシーケンス番号順なのでそのまま出力.
+			final StringCodeMap codes = (StringCodeMap) ext;
+			byte4(buf, len);
+			for (int i = 0; i < len; i++) {
+				b = codes.string(i).getBytes(StandardCharsets.UTF_8);
+				byte4(buf, b.length); // 長さ.
+				buf.write(b, 0, b.length); // body.
+			}
+			return;
+		}
 		String[] list = new String[len];
 		Iterator<String> it = ext.keySet().iterator();
 		while (it.hasNext()) {
@@ -473,13 +895,29 @@ public final class SerializableCore {
 	 */
 	public static final void stringBinary(Map<String, Integer> strSeqMap, OutputStream buf, String s)
 			throws Exception {
+		// 番号セット.
+		byte4(buf, stringCode(strSeqMap, s));
+	}
+
+	/**
+	 * 文字列のシーケンス番号を取得.
+	 *
+	 * 未登録の場合は、次のシーケンス番号で登録します.
+	 *
+	 * @param strSeqMap 文字列のシーケンス番号付与用のオブジェクトを設定します.
+	 * @param s         対象の文字列を設定します.
+	 * @return int シーケンス番号が返却されます.
+	 */
+	static final int stringCode(Map<String, Integer> strSeqMap, String s) {
+		if (strSeqMap instanceof StringCodeMap) {
+			return ((StringCodeMap) strSeqMap).code(s);
+		}
 		Integer n = strSeqMap.get(s);
 		if (n == null) {
 			n = strSeqMap.size();
 			strSeqMap.put(s, n);
 		}
-		// 番号セット.
-		byte4(buf, n);
+		return n;
 	}
 
 	/**
@@ -531,20 +969,53 @@ public final class SerializableCore {
 	 * @param o   対象のオブジェクトを設定します.
 	 * @exception Exception 例外.
 	 */
-	@SuppressWarnings("rawtypes")
 	public static final void encodeObject(Map<String, Integer> strSeqMap, OutputStream buf, Object o)
 			throws Exception {
+		encodeObject(new EncodeContext(strSeqMap, 0, false), buf, o);
+	}
+
+	// オブジェクトデータ変換.
+	static final void encodeObject(EncodeContext ctx, OutputStream buf, Object o) throws Exception {
 		// その他変換コードが設定されている場合.
 		if(ORIGIN_CODE != null) {
 			// オブジェクト変換.
 			o = ORIGIN_CODE.inObject(o);
 			
 			// その他変換コードが設定されている場合.
-			if(ORIGIN_CODE.encode(strSeqMap, buf, o)) {
+			if(ORIGIN_CODE.encode(ctx.strSeqMap, buf, o)) {
 				return;
 			}
 		}
+		// 階層が深い場合はループで変換.
+		if (ctx.depth >= SerializableStack.RECURSIVE_DEPTH) {
+			SerializableStack.encode(ctx, buf, o);
+			return;
+		}
+		ctx.depth++;
+		try {
+			if (ctx.skippable && buf instanceof ByteArrayIO
+					&& (o instanceof Map || o instanceof List || o instanceof Set || o instanceof Object[])) {
+				// バイト長付きコンテナ.
+				final ByteArrayIO io = (ByteArrayIO) buf;
+				head(buf, 18);
+				final int p = io.size();
+				buf.write(ZERO4_BIN);
+				encodeValue(ctx, buf, o);
+				ctx.skipLength(p, io.size() - p - 4);
+			} else {
+				encodeValue(ctx, buf, o);
+			}
+		} finally {
+			ctx.depth--;
+		}
+	}
+
+	// オブジェクトデータ変換(拡張変換処理の適用後).
+	@SuppressWarnings("rawtypes")
+	static final void encodeValue(EncodeContext ctx, OutputStream buf, Object o) throws Exception {
+		final Map<String, Integer> strSeqMap = ctx.strSeqMap;
 		byte[] b;
+		FieldCodec fc;
 		if (o == null) {
 			head(buf, 0xff); // null.
 		} else if (o instanceof String) {
@@ -604,7 +1075,46 @@ public final class SerializableCore {
 				byte1(buf, 4);
 			}
 			byte8(buf, ((java.util.Date) o).getTime());
+		} else if (o instanceof UUID) {
+			head(buf, 30); // UUID.
+			fixed8(buf, ((UUID) o).getMostSignificantBits());
+			fixed8(buf, ((UUID) o).getLeastSignificantBits());
+		} else if (o instanceof Instant) {
+			head(buf, 31); // Instant.
+			byte8(buf, ((Instant) o).getEpochSecond());
+			byte4(buf, ((Instant) o).getNano());
+		} else if (o instanceof LocalDateTime) {
+			head(buf, 32); // LocalDateTime.
+			byte8(buf, ((LocalDateTime) o).toEpochSecond(ZoneOffset.UTC));
+			byte4(buf, ((LocalDateTime) o).getNano());
+		} else if (o instanceof LocalDate) {
+			head(buf, 33); // LocalDate.
+			byte8(buf, ((LocalDate) o).toEpochDay());
+		} else if (o instanceof LocalTime) {
+			head(buf, 34); // LocalTime.
+			byte8(buf, ((LocalTime) o).toNanoOfDay());
+		} else if (o instanceof Enum) {
+			head(buf, 35); // Enum.
+			// クラス名と定義名をセット.
+			stringBinary(strSeqMap, buf, ((Enum) o).getDeclaringClass().getName());
+			stringBinary(strSeqMap, buf, ((Enum) o).name());
+		} else if (o instanceof Optional) {
+			head(buf, 36); // Optional.
+			encodeObject(ctx, buf, ((Optional<?>) o).orElse(null));
+		} else if (o instanceof SerializeObject && (fc = FieldCodec.serializeObject(o.getClass())) != null) {
+			if (ctx.reference(buf, o)) {
+				return;
+			}
+			head(buf, 16); // SerializeObject(フィールド直接変換).
+			// オブジェクト名をセット.
+			stringBinary(strSeqMap, buf, o.getClass().getName());
+			// フィールド数とフィールド群をセット.
+			byte4(buf, fc.fields.length);
+			fc.encodeFields(ctx, buf, o);
 		} else if (o instanceof SerializeObject) {
+			if (ctx.reference(buf, o)) {
+				return;
+			}
 			head(buf, 15); // SerializeObject.
 			// オブジェクト名をセット.
 			stringBinary(strSeqMap, buf, o.getClass().getName());
@@ -614,9 +1124,12 @@ public final class SerializableCore {
 			final int len = lst.length;
 			byte4(buf, len); // 長さ.
 			for (int i = 0; i < len; i++) {
-				encodeObject(strSeqMap, buf, lst[i]);
+				encodeObject(ctx, buf, lst[i]);
 			}
 		} else if (o.getClass().isArray()) {
+			if (ctx.reference(buf, o)) {
+				return;
+			}
 			if (o instanceof boolean[]) {
 				head(buf, 20); // boolean配列.
 				final boolean[] c = (boolean[]) o;
@@ -648,6 +1161,9 @@ public final class SerializableCore {
 					byte2(buf, c[i]);
 				}
 			} else if (o instanceof int[]) {
+				if (PackedArray.encode(buf, (int[]) o)) {
+					return; // ビットパックで出力.
+				}
 				head(buf, 24); // int配列.
 				final int[] c = (int[]) o;
 				final int len = c.length;
@@ -656,6 +1172,9 @@ public final class SerializableCore {
 					byte4(buf, c[i]);
 				}
 			} else if (o instanceof long[]) {
+				if (PackedArray.encode(buf, (long[]) o)) {
+					return; // ビットパックで出力.
+				}
 				head(buf, 25); // long配列.
 				final long[] c = (long[]) o;
 				final int len = c.length;
@@ -680,6 +1199,9 @@ public final class SerializableCore {
 					byte8(buf, Double.doubleToRawLongBits(c[i]));
 				}
 			} else if (o instanceof String[]) {
+				if (DictionaryArray.encode(strSeqMap, buf, (String[]) o)) {
+					return; // 辞書変換で出力.
+				}
 				head(buf, 28); // String配列.
 				final String[] c = (String[]) o;
 				final int len = c.length;
@@ -690,14 +1212,19 @@ public final class SerializableCore {
 			} else {
 				// 配列オブジェクトの場合.
 				if (o.getClass().isArray()) {
-					// Object配列.
-					head(buf, 50); // Object配列.
-
+					if (o instanceof Object[] && DictionaryArray.encode(ctx, buf, (Object[]) o, false)) {
+						return; // 辞書変換で出力.
+					}
 					// 配列データセット.
 					final int len = Array.getLength(o);
+					if (IndexedArray.encode(ctx, buf, o, len, false)) {
+						return; // 索引付きで出力.
+					}
+					// Object配列.
+					head(buf, 50); // Object配列.
 					byte4(buf, len); // 長さ.
 					for (int i = 0; i < len; i++) {
-						encodeObject(strSeqMap, buf, Array.get(o, i));
+						encodeObject(ctx, buf, Array.get(o, i));
 					}
 				}
 				// 多重配列の場合.
@@ -708,33 +1235,78 @@ public final class SerializableCore {
 				}
 			}
 		} else if (o instanceof List) {
-			head(buf, 51); // Listオブジェクト.
+			if (ctx.reference(buf, o)) {
+				return;
+			}
 			final List lst = (List) o;
+			// 同一キーのMapのリストは列形式で変換.
+			final String[] keys = columnarKeys(ctx, lst);
+			if (keys != null) {
+				encodeColumnar(ctx, buf, lst, keys);
+				return;
+			}
+			// 種類の少ない値のリストは辞書変換.
+			if (lst.size() >= DictionaryArray.MIN_LENGTH && DictionaryArray.encode(ctx, buf, lst.toArray(), true)) {
+				return;
+			}
 			final int len = lst.size();
+			if (IndexedArray.encode(ctx, buf, lst, len, true)) {
+				return; // 索引付きで出力.
+			}
+			head(buf, 51); // Listオブジェクト.
 			byte4(buf, len); // 長さ.
 			for (int i = 0; i < len; i++) {
-				encodeObject(strSeqMap, buf, lst.get(i));
+				encodeObject(ctx, buf, lst.get(i));
 			}
 		} else if (o instanceof Map) {
+			if (ctx.reference(buf, o)) {
+				return;
+			}
+			final Map map = (Map) o;
+			if (IndexedArray.encode(ctx, buf, map)) {
+				return; // キーを並べ替えて索引付きで出力.
+			}
 			head(buf, 52); // Mapオブジェクト.
 			Object k;
-			final Map map = (Map) o;
 			byte4(buf, map.size()); // 長さ.
-			final Iterator it = map.keySet().iterator();
+			final Iterator it = ctx.canonical ? Arrays.asList(CanonicalOrder.sort(map.keySet().toArray())).iterator()
+					: map.keySet().iterator();
 			while (it.hasNext()) {
 				k = it.next();
-				encodeObject(strSeqMap, buf, k); // キー.
-				encodeObject(strSeqMap, buf, map.get(k)); // 要素.
+				encodeObject(ctx, buf, k); // キー.
+				encodeObject(ctx, buf, map.get(k)); // 要素.
 			}
 		} else if (o instanceof Set) {
+			if (ctx.reference(buf, o)) {
+				return;
+			}
 			head(buf, 53); // Setオブジェクト.
 			final Set set = (Set) o;
 			byte4(buf, set.size()); // 長さ.
-			final Iterator it = set.iterator();
+			final Iterator it = ctx.canonical ? Arrays.asList(CanonicalOrder.sort(set.toArray())).iterator()
+					: set.iterator();
 			while (it.hasNext()) {
-				encodeObject(strSeqMap, buf, it.next()); // キー.
+				encodeObject(ctx, buf, it.next()); // キー.
+			}
+		} else if ((fc = FieldCodec.plain(o.getClass(), ctx.mode)) != null) {
+			if (ctx.reference(buf, o)) {
+				return;
+			}
+			head(buf, 17); // フィールド単位変換オブジェクト.
+			// フィールド定義をセット(初出のクラスのみ定義本体を格納).
+			final int n = ctx.descriptor(fc.clazz);
+			byte4(buf, n);
+			if (n == 0) {
+				fc.encodeDescriptor(ctx, buf);
 			}
+			fc.encodeFields(ctx, buf, o);
+		} else if (o instanceof Serializable && ctx.sharedSerial) {
+			head(buf, 61); // 共有ストリームのシリアライズオブジェクト.
+			byte4(buf, ctx.serial((Serializable) o));
 		} else if (o instanceof Serializable) {
+			if (ctx.reference(buf, o)) {
+				return;
+			}
 			head(buf, 60); // シリアライズオブジェクト.
 			// シリアライズ.
 			serialBinary(buf, (Serializable) o);
@@ -744,26 +1316,388 @@ public final class SerializableCore {
 		}
 	}
 
-	/**
-	 * オブジェクト解析.
-	 * 
-	 * @param stringMap シーケンス番号の文字列変換用情報を設定します.
-	 * @param pos    対象のポジションを設定します.
-	 * @param b      対象のバイナリを設定します.
-	 * @param length 対象の長さを設定します.
-	 * @return Object 変換されたオブジェクトが返却されます.
+	/** 列形式で変換する List の最小行数. **/
+	private static final int COLUMNAR_MIN_ROWS = 4;
+
+	// 列形式で変換できる List(全ての要素が同じ文字列キーを持つMap)の場合は、キー名群を返却.
+	// 同一性を保持する場合と拡張変換処理が設定されている場合は対象外.
+	@SuppressWarnings("rawtypes")
+	static final String[] columnarKeys(EncodeContext ctx, List lst) {
+		final int len = lst.size();
+		if (len < COLUMNAR_MIN_ROWS || ctx.reference != null || ORIGIN_CODE != null) {
+			return null;
+		}
+		Object row = lst.get(0);
+		if (!(row instanceof Map) || row instanceof SerializeObject) {
+			return null;
+		}
+		final int cols = ((Map) row).size();
+		if (cols == 0) {
+			return null;
+		}
+		final String[] keys = new String[cols];
+		int i = 0, j;
+		for (Object k : ((Map) row).keySet()) {
+			if (!(k instanceof String) || i >= cols) {
+				return null;
+			}
+			keys[i++] = (String) k;
+		}
+		Map m;
+		for (i = 1; i < len; i++) {
+			row = lst.get(i);
+			if (!(row instanceof Map) || row instanceof SerializeObject || ((Map) row).size() != cols) {
+				return null;
+			}
+			m = (Map) row;
+			for (j = 0; j < cols; j++) {
+				if (!m.containsKey(keys[j])) {
+					return null;
+				}
+			}
+		}
+		if (ctx.canonical) {
+			Arrays.sort(keys, IndexedArray::compare);
+		}
+		return keys;
+	}
+
+	// List<Map> を列形式で変換.
+	@SuppressWarnings("rawtypes")
+	private static final void encodeColumnar(EncodeContext ctx, OutputStream buf, List lst, String[] keys)
+			throws Exception {
+		final Columnar c = encodeColumnarHead(ctx, buf, lst, keys);
+		Object[] v;
+		for (int j = 0; j < keys.length; j++) {
+			if (!encodeColumn(ctx, buf, c, j)) {
+				v = (Object[]) c.columns[j];
+				for (int i = 0; i < c.rows; i++) {
+					encodeObject(ctx, buf, v[i]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 列形式の List<Map> のヘッダ、キー名と列型を出力.
+	 *
+	 * @param ctx  エンコード処理中の情報を設定します.
+	 * @param buf  対象のバッファを設定します.
+	 * @param lst  対象の List を設定します.
+	 * @param keys columnarKeys で取得したキー名群を設定します.
+	 * @return Columnar 列単位に集約した値が返却されます.
+	 * @exception Exception 例外.
+	 */
+	@SuppressWarnings("rawtypes")
+	static final Columnar encodeColumnarHead(EncodeContext ctx, OutputStream buf, List lst, String[] keys)
+			throws Exception {
+		final int rows = lst.size();
+		final int cols = keys.length;
+		int i, j;
+		head(buf, 54); // 列形式の List<Map>.
+		byte4(buf, rows);
+		byte4(buf, cols);
+		// 列単位に値を集約.
+		final Object[][] columns = new Object[cols][rows];
+		Map m;
+		for (i = 0; i < rows; i++) {
+			m = (Map) lst.get(i);
+			for (j = 0; j < cols; j++) {
+				columns[j][i] = m.get(keys[j]);
+			}
+		}
+		// キー名と列型.
+		final Columnar ret = new Columnar(keys, new int[cols], columns, rows);
+		final int[] kinds = ret.kinds;
+		ret.dicts = new Object[cols][];
+		ret.indexes = new int[cols][];
+		for (j = 0; j < cols; j++) {
+			kinds[j] = ColumnarList.kind(columns[j]);
+			if (kinds[j] == ColumnarList.KIND_STRING || kinds[j] == ColumnarList.KIND_OBJECT) {
+				// 種類の少ない値の列は辞書変換.
+				ret.indexes[j] = new int[rows];
+				if ((ret.dicts[j] = DictionaryArray.dictionary(columns[j], rows, ret.indexes[j])) != null) {
+					kinds[j] = ColumnarList.KIND_DICTIONARY;
+				} else {
+					ret.indexes[j] = null;
+				}
+			}
+			stringBinary(ctx.strSeqMap, buf, keys[j]);
+			byte1(buf, kinds[j]);
+		}
+		return ret;
+	}
+
+	/**
+	 * 列形式の List<Map> の列の値を出力.
+	 *
+	 * @param ctx エンコード処理中の情報を設定します.
+	 * @param buf 対象のバッファを設定します.
+	 * @param c   encodeColumnarHead で取得した内容を設定します.
+	 * @param j   対象の列番号を設定します.
+	 * @return boolean オブジェクト列の場合は出力せずに[false]が返却されます.
+	 * @exception Exception 例外.
+	 */
+	static final boolean encodeColumn(EncodeContext ctx, OutputStream buf, Columnar c, int j) throws Exception {
+		final Object[] v = (Object[]) c.columns[j];
+		final int rows = c.rows;
+		int i;
+		switch (c.kinds[j]) {
+		case ColumnarList.KIND_STRING:
+			for (i = 0; i < rows; i++) {
+				stringBinary(ctx.strSeqMap, buf, (String) v[i]);
+			}
+			return true;
+		case ColumnarList.KIND_INT:
+			for (i = 0; i < rows; i++) {
+				byte4(buf, (Integer) v[i]);
+			}
+			return true;
+		case ColumnarList.KIND_LONG:
+			for (i = 0; i < rows; i++) {
+				byte8(buf, (Long) v[i]);
+			}
+			return true;
+		case ColumnarList.KIND_DOUBLE:
+			for (i = 0; i < rows; i++) {
+				byte8(buf, Double.doubleToRawLongBits((Double) v[i]));
+			}
+			return true;
+		case ColumnarList.KIND_BOOLEAN:
+			for (i = 0; i < rows; i++) {
+				byte1(buf, ((Boolean) v[i]) ? 1 : 0);
+			}
+			return true;
+		case ColumnarList.KIND_DICTIONARY:
+			DictionaryArray.write(ctx, buf, c.dicts[j], c.indexes[j], rows);
+			return true;
+		}
+		return false;
+	}
+
+	// 列形式の List<Map> を復元.
+	private static final Object decodeColumnar(DecodeContext ctx, int[] pos, byte[] b, int length)
+			throws Exception {
+		final Columnar c = decodeColumnarHead(ctx, pos, b);
+		Object[] v;
+		for (int j = 0; j < c.kinds.length; j++) {
+			if (!decodeColumn(ctx, pos, b, length, c, j)) {
+				v = (Object[]) c.columns[j];
+				for (int i = 0; i < c.rows; i++) {
+					v[i] = decodeObject(ctx, pos, b, length);
+				}
+			}
+		}
+		return c.list(ctx);
+	}
+
+	/**
+	 * 列形式の List<Map> のキー名と列型を復元.
+	 *
+	 * @param ctx デコード処理中の情報を設定します.
+	 * @param pos 対象のポジション(型の次)を設定します.
+	 * @param b   対象のバイナリを設定します.
+	 * @return Columnar 列の値が未設定の内容が返却されます.
+	 * @exception Exception 例外.
+	 */
+	static final Columnar decodeColumnarHead(DecodeContext ctx, int[] pos, byte[] b) throws Exception {
+		final int rows = byte4Int(b, pos);
+		final int cols = byte4Int(b, pos);
+		final String[] keys = new String[cols];
+		final int[] kinds = new int[cols];
+		for (int j = 0; j < cols; j++) {
+			keys[j] = byteString(ctx.stringMap, pos, b);
+			kinds[j] = byte1Int(b, pos);
+		}
+		return new Columnar(keys, kinds, new Object[cols], rows);
+	}
+
+	/**
+	 * 列形式の List<Map> の列の値を復元.
+	 *
+	 * オブジェクト列の場合は、値を読み込まずに要素数分の Object[] を設定します.
+	 *
+	 * @param ctx    デコード処理中の情報を設定します.
+	 * @param pos    対象のポジションを設定します.
+	 * @param b      対象のバイナリを設定します.
+	 * @param length 対象の長さを設定します.
+	 * @param c      decodeColumnarHead で取得した内容を設定します.
+	 * @param j      対象の列番号を設定します.
+	 * @return boolean オブジェクト列の場合は[false]が返却されます.
+	 * @exception Exception 例外.
+	 */
+	static final boolean decodeColumn(DecodeContext ctx, int[] pos, byte[] b, int length, Columnar c, int j)
+			throws Exception {
+		final int rows = c.rows;
+		int i;
+		switch (c.kinds[j]) {
+		case ColumnarList.KIND_STRING: {
+			final Object[] v = new Object[rows];
+			for (i = 0; i < rows; i++) {
+				v[i] = byteString(ctx.stringMap, pos, b);
+			}
+			c.columns[j] = v;
+			return true;
+		}
+		case ColumnarList.KIND_INT: {
+			final int[] v = new int[rows];
+			for (i = 0; i < rows; i++) {
+				v[i] = byte4Int(b, pos);
+			}
+			c.columns[j] = v;
+			return true;
+		}
+		case ColumnarList.KIND_LONG: {
+			final long[] v = new long[rows];
+			for (i = 0; i < rows; i++) {
+				v[i] = byte8Long(b, pos);
+			}
+			c.columns[j] = v;
+			return true;
+		}
+		case ColumnarList.KIND_DOUBLE: {
+			final double[] v = new double[rows];
+			for (i = 0; i < rows; i++) {
+				v[i] = Double.longBitsToDouble(byte8Long(b, pos));
+			}
+			c.columns[j] = v;
+			return true;
+		}
+		case ColumnarList.KIND_BOOLEAN: {
+			final boolean[] v = new boolean[rows];
+			for (i = 0; i < rows; i++) {
+				v[i] = byte1Int(b, pos) == 1;
+			}
+			c.columns[j] = v;
+			return true;
+		}
+		case ColumnarList.KIND_DICTIONARY: {
+			// 復元後はオブジェクト列として保持.
+			c.columns[j] = DictionaryArray.read(ctx, pos, b, length);
+			c.kinds[j] = ColumnarList.KIND_OBJECT;
+			return true;
+		}
+		}
+		c.columns[j] = new Object[rows];
+		return false;
+	}
+
+	/**
+	 * 列形式の List<Map> の列群.
+	 */
+	static final class Columnar {
+		/** キー名群. **/
+		final String[] keys;
+
+		/** 列型群. **/
+		final int[] kinds;
+
+		/** 列単位の値. **/
+		final Object[] columns;
+
+		/** 行数. **/
+		final int rows;
+
+		/** 辞書変換する列の辞書(エンコード時のみ). **/
+		Object[][] dicts;
+
+		/** 辞書変換する列の辞書番号(エンコード時のみ). **/
+		int[][] indexes;
+
+		Columnar(String[] keys, int[] kinds, Object[] columns, int rows) {
+			this.keys = keys;
+			this.kinds = kinds;
+			this.columns = columns;
+			this.rows = rows;
+		}
+
+		/**
+		 * 復元した列群から List を生成.
+		 *
+		 * @param ctx デコード処理中の情報を設定します.
+		 * @return ColumnarList 列形式の List が返却されます.
+		 */
+		final ColumnarList list(DecodeContext ctx) {
+			return new ColumnarList(keys, kinds, columns, rows, ctx.frozen());
+		}
+	}
+
+	/**
+	 * オブジェクト解析.
+	 * 
+	 * @param stringMap シーケンス番号の文字列変換用情報を設定します.
+	 * @param pos    対象のポジションを設定します.
+	 * @param b      対象のバイナリを設定します.
+	 * @param length 対象の長さを設定します.
+	 * @return Object 変換されたオブジェクトが返却されます.
 	 */
 	public static final Object decodeObject(String[] stringMap, int[] pos, byte[] b, int length) throws Exception {
-		Object ret = _decodeObject(stringMap, pos, b, length);
+		return decodeObject(new DecodeContext(stringMap), pos, b, length);
+	}
+
+	// オブジェクト解析.
+	static final Object decodeObject(DecodeContext ctx, int[] pos, byte[] b, int length) throws Exception {
+		// 階層が深い場合はループで変換.
+		if (ctx.depth >= SerializableStack.RECURSIVE_DEPTH) {
+			return SerializableStack.decode(ctx, pos, b, length);
+		}
+		Object ret;
+		ctx.depth++;
+		try {
+			ret = _decodeObject(ctx, pos, b, length);
+		} finally {
+			ctx.depth--;
+		}
 		if(ORIGIN_CODE != null) {
 			return ORIGIN_CODE.outObject(ret);
 		}
 		return ret;
 	}
 	
+	/**
+	 * オブジェクトを読み飛ばす.
+	 * 
+	 * バイト長付きコンテナ(MODE_SKIPPABLE)の場合は、子要素を解析せずに読み飛ばします.
+	 * それ以外の場合は、オブジェクトを生成せずにバイナリを走査して読み飛ばします.
+	 * 
+	 * @param stringMap シーケンス番号の文字列変換用情報を設定します.
+	 * @param pos       対象のポジションを設定します.
+	 * @param b         対象のバイナリを設定します.
+	 * @param length    対象の長さを設定します.
+	 * @exception Exception 例外.
+	 */
+	public static final void skipObject(String[] stringMap, int[] pos, byte[] b, int length) throws Exception {
+		skipObject(new DecodeContext(stringMap), pos, b, length);
+	}
+
+	// オブジェクトを読み飛ばす.
+	static final void skipObject(DecodeContext ctx, int[] pos, byte[] b, int length) throws Exception {
+		final int p = pos[0];
+		if (p < length && (b[p] & 0xff) == 18) {
+			final int len = fixed4Int(b, p + 1);
+			if (len < 0 || p + 5 + len > length) {
+				throw new IOException("Attempting to process beyond specified length " + length + " byte: " + p);
+			}
+			pos[0] = p + 5 + len;
+			return;
+		}
+		// 同一性保持と拡張変換処理は、復元して読み飛ばす.
+		if (ctx.reference != null || ORIGIN_CODE != null) {
+			decodeObject(ctx, pos, b, length);
+			return;
+		}
+		new SerializablePath(b, length, ctx).skip(pos);
+	}
+
+	// 4バイト固定長(リトルエンディアン)の数値を取得.
+	static final int fixed4Int(byte[] b, int o) {
+		return (b[o] & 0xff) | ((b[o + 1] & 0xff) << 8) | ((b[o + 2] & 0xff) << 16) | ((b[o + 3] & 0xff) << 24);
+	}
+
 	// オブジェクト解析.
 	@SuppressWarnings({ "unchecked", "rawtypes" })
-	private static final Object _decodeObject(String[] stringMap, int[] pos, byte[] b, int length) throws Exception {
+	static final Object _decodeObject(DecodeContext ctx, int[] pos, byte[] b, int length) throws Exception {
+		final String[] stringMap = ctx.stringMap;
 		if (length <= pos[0]) {
 			throw new IOException("Attempting to process beyond specified length " + length + " byte: " + pos[0]);
 		}
@@ -776,6 +1710,11 @@ public final class SerializableCore {
 			// string.
 			return byteString(stringMap, pos, b);
 		}
+		case 18: {
+			// バイト長付きコンテナ.
+			pos[0] += 4;
+			return _decodeObject(ctx, pos, b, length);
+		}
 		case 2: {
 			// boolean.
 			return (byte1Int(b, pos) == 1);
@@ -838,22 +1777,73 @@ public final class SerializableCore {
 			}
 			return null;
 		}
+		case 30: {
+			// UUID.
+			final long msb = fixed8Long(b, pos);
+			return new UUID(msb, fixed8Long(b, pos));
+		}
+		case 31: {
+			// Instant.
+			final long sec = byte8Long(b, pos);
+			return Instant.ofEpochSecond(sec, byte4Int(b, pos));
+		}
+		case 32: {
+			// LocalDateTime.
+			final long sec = byte8Long(b, pos);
+			return LocalDateTime.ofEpochSecond(sec, byte4Int(b, pos), ZoneOffset.UTC);
+		}
+		case 33: {
+			// LocalDate.
+			return LocalDate.ofEpochDay(byte8Long(b, pos));
+		}
+		case 34: {
+			// LocalTime.
+			return LocalTime.ofNanoOfDay(byte8Long(b, pos));
+		}
+		case 35: {
+			// Enum.
+			final Class c = ctx.classOf(byte4Int(b, pos));
+			return Enum.valueOf(c, byteString(stringMap, pos, b));
+		}
+		case 36: {
+			// Optional.
+			return Optional.ofNullable(decodeObject(ctx, pos, b, length));
+		}
 		case 15: {
 			// SerializeObject.
-			final String cls = byteString(stringMap, pos, b);
-			ret = FastReflect.newInstance(cls);
+			ret = ctx.register(ctx.newInstance(byte4Int(b, pos)));
 			len = byte4Int(b, pos);
 			final Object[] lst = new Object[len];
 			for (i = 0; i < len; i++) {
-				lst[i] = decodeObject(stringMap, pos, b, length);
+				lst[i] = decodeObject(ctx, pos, b, length);
 			}
 			((SerializeObject) ret).toObject(lst);
 			return ret;
 		}
+		case 16: {
+			// SerializeObject(フィールド直接変換).
+			i = byte4Int(b, pos);
+			final FieldCodec fc = ctx.fieldCodec(i);
+			if (fc.fields.length != byte4Int(b, pos)) {
+				throw new IOException("Field structure of class '" + stringMap[i] + "' does not match.");
+			}
+			ret = ctx.register(ctx.newInstance(i));
+			fc.decodeFields(ctx, pos, b, length, ret);
+			return ret;
+		}
+		case 17: {
+			// フィールド単位変換オブジェクト.
+			i = byte4Int(b, pos);
+			if (i == 0) {
+				final int at = pos[0];
+				return ctx.addDescriptor(at, FieldCodec.decodeDescriptor(ctx, pos, b)).decode(ctx, pos, b, length);
+			}
+			return ctx.descriptor(i).decode(ctx, pos, b, length);
+		}
 		case 20: {
 			// boolean配列.
 			len = byte4Int(b, pos);
-			final boolean[] lst = new boolean[len];
+			final boolean[] lst = ctx.register(new boolean[len]);
 			for (i = 0; i < len; i++) {
 				lst[i] = (byte1Int(b, pos) == 1);
 			}
@@ -862,7 +1852,7 @@ public final class SerializableCore {
 		case 21: {
 			// byte配列.
 			len = byte4Int(b, pos);
-			byte[] lst = new byte[len];
+			byte[] lst = ctx.register(new byte[len]);
 			System.arraycopy(b, pos[0], lst, 0, len);
 			pos[0] += len;
 			return lst;
@@ -870,7 +1860,7 @@ public final class SerializableCore {
 		case 22: {
 			// char配列.
 			len = byte4Int(b, pos);
-			final char[] lst = new char[len];
+			final char[] lst = ctx.register(new char[len]);
 			for (i = 0; i < len; i++) {
 				lst[i] = (char) byte2Int(b, pos);
 			}
@@ -879,7 +1869,7 @@ public final class SerializableCore {
 		case 23: {
 			// short配列.
 			len = byte4Int(b, pos);
-			final short[] lst = new short[len];
+			final short[] lst = ctx.register(new short[len]);
 			for (i = 0; i < len; i++) {
 				lst[i] = (short) byte2Int(b, pos);
 			}
@@ -888,7 +1878,7 @@ public final class SerializableCore {
 		case 24: {
 			// int配列.
 			len = byte4Int(b, pos);
-			final int[] lst = new int[len];
+			final int[] lst = ctx.register(new int[len]);
 			for (i = 0; i < len; i++) {
 				lst[i] = byte4Int(b, pos);
 			}
@@ -897,16 +1887,32 @@ public final class SerializableCore {
 		case 25: {
 			// long配列.
 			len = byte4Int(b, pos);
-			final long[] lst = new long[len];
+			final long[] lst = ctx.register(new long[len]);
 			for (i = 0; i < len; i++) {
 				lst[i] = byte8Long(b, pos);
 			}
 			return lst;
 		}
+		case 37: {
+			// パックされたint配列.
+			return ctx.register(PackedArray.decodeInt(pos, b));
+		}
+		case 38: {
+			// パックされたlong配列.
+			return ctx.register(PackedArray.decodeLong(pos, b));
+		}
+		case 39: {
+			// 辞書変換されたString配列.
+			return ctx.register(DictionaryArray.decode(stringMap, pos, b));
+		}
+		case 40: {
+			// 辞書変換されたObject配列、List.
+			return DictionaryArray.decode(ctx, pos, b, length);
+		}
 		case 26: {
 			// float配列.
 			len = byte4Int(b, pos);
-			final float[] lst = new float[len];
+			final float[] lst = ctx.register(new float[len]);
 			for (i = 0; i < len; i++) {
 				lst[i] = Float.intBitsToFloat(byte4Int(b, pos));
 			}
@@ -915,7 +1921,7 @@ public final class SerializableCore {
 		case 27: {
 			// double配列.
 			len = byte4Int(b, pos);
-			final double[] lst = new double[len];
+			final double[] lst = ctx.register(new double[len]);
 			for (i = 0; i < len; i++) {
 				lst[i] = Double.longBitsToDouble(byte8Long(b, pos));
 			}
@@ -924,7 +1930,7 @@ public final class SerializableCore {
 		case 28: {
 			// String配列.
 			len = byte4Int(b, pos);
-			final String[] lst = new String[len];
+			final String[] lst = ctx.register(new String[len]);
 			for (i = 0; i < len; i++) {
 				lst[i] = byteString(stringMap, pos, b);
 			}
@@ -933,43 +1939,71 @@ public final class SerializableCore {
 		case 50: {
 			// Object配列.
 			len = byte4Int(b, pos);
-			final Object[] lst = new Object[len];
+			final Object[] lst = ctx.register(new Object[len]);
 			for (i = 0; i < len; i++) {
-				lst[i] = decodeObject(stringMap, pos, b, length);
+				lst[i] = decodeObject(ctx, pos, b, length);
 			}
 			return lst;
 		}
 		case 51: {
 			// List.
 			len = byte4Int(b, pos);
-			final List lst = new ArrayList();
+			final List lst = ctx.register(new ArrayList(len));
 			for (i = 0; i < len; i++) {
-				lst.add(decodeObject(stringMap, pos, b, length));
+				lst.add(decodeObject(ctx, pos, b, length));
 			}
 			return lst;
 		}
 		case 52: {
 			// Map.
 			len = byte4Int(b, pos);
-			final Map map = new AndroidMap();
+			if (ctx.primitiveKeys()) {
+				// キーの型を確認してから Map を生成.
+				final Object[] kv = new Object[len << 1];
+				for (i = 0; i < kv.length; i++) {
+					kv[i] = decodeObject(ctx, pos, b, length);
+				}
+				return ctx.finish(kv, len);
+			}
+			final Map map = ctx.register(newMap(len));
 			for (i = 0; i < len; i++) {
-				map.put(decodeObject(stringMap, pos, b, length),
-						decodeObject(stringMap, pos, b, length));
+				map.put(decodeObject(ctx, pos, b, length),
+						decodeObject(ctx, pos, b, length));
 			}
-			return map;
+			return ctx.finish(map);
+		}
+		case 54: {
+			// 列形式の List<Map>.
+			return decodeColumnar(ctx, pos, b, length);
+		}
+		case 55: {
+			// 索引付き Object配列、List.
+			return IndexedArray.decode(ctx, pos, b, length);
+		}
+		case 56: {
+			// キーを並べ替えた索引付き Map.
+			return IndexedArray.decodeMap(ctx, pos, b, length);
 		}
 		case 53: {
 			// Set.
 			len = byte4Int(b, pos);
-			final Set set = new HashSet();
+			final Set set = ctx.register(newSet(len));
 			for (i = 0; i < len; i++) {
-				set.add(decodeObject(stringMap, pos, b, length));
+				set.add(decodeObject(ctx, pos, b, length));
 			}
 			return set;
 		}
 		case 60: {
 			// シリアライズ可能オブジェクト.
-			return byteSerial(b, pos);
+			return ctx.register(byteSerial(b, pos));
+		}
+		case 61: {
+			// 共有ストリームのシリアライズオブジェクト.
+			return ctx.serial(byte4Int(b, pos));
+		}
+		case 62: {
+			// 出力済みオブジェクトの参照.
+			return ctx.reference(byte4Int(b, pos));
 		}
 		case 0xff: {
 			// NULL.
@@ -993,6 +2027,500 @@ public final class SerializableCore {
 		byte1(buf, n);
 	}
 
+	/**
+	 * エンコード処理中の情報.
+	 * 
+	 * 1つのバイナリをエンコードする間だけ有効な情報を保持します.
+	 */
+	static final class EncodeContext {
+		/** 文字列のシーケンス番号付与用のオブジェクト. **/
+		final Map<String, Integer> strSeqMap;
+
+		/** エンコードモード. **/
+		final int mode;
+
+		/** 出力済みのフィールド定義番号(nullの場合は毎回定義を出力). **/
+		private final Map<Class<?>, Integer> descriptor;
+
+		/** Serializable を共有ストリームで出力する場合は[true]. **/
+		final boolean sharedSerial;
+
+		/** Serializable 共有ストリームの出力先. **/
+		ByteArrayIO serialBuf;
+		ObjectOutputStream serialOut;
+
+		/** 共有ストリームに出力済みのオブジェクト番号. **/
+		private Map<Object, Integer> serial;
+
+		/** 出力済みオブジェクトの参照番号(nullの場合は同一性を保持しない). **/
+		Map<Object, Integer> reference;
+
+		/** 再帰呼び出しの深さ. **/
+		int depth;
+
+		/** コンテナにバイト長を付与する場合は[true]. **/
+		final boolean skippable;
+
+		/** Object配列、List に索引を付与する場合は[true]. **/
+		final boolean indexed;
+
+		/** Map のキーを並べ替えて索引を付与する場合は[true]. **/
+		final boolean sorted;
+
+		/** 正規化したバイナリを出力する場合は[true]. **/
+		final boolean canonical;
+
+		/** バイト長の出力位置(上位32ビット)と長さ(下位32ビット). **/
+		private long[] skipLength;
+		private int skipCount;
+
+		EncodeContext(Map<String, Integer> strSeqMap, int mode, boolean message) {
+			this.strSeqMap = strSeqMap;
+			this.mode = mode;
+			this.sharedSerial = message && (mode & MODE_SHARED_SERIAL) != 0;
+			this.reference = message && (mode & MODE_REFERENCE) != 0 ? new IdentityHashMap<Object, Integer>() : null;
+			// 読み飛ばしたコンテナ内の定義を参照できないため、バイト長や索引を付与する場合はフィールド定義を共有しない.
+			this.skippable = message && (mode & MODE_SKIPPABLE) != 0 && reference == null;
+			this.indexed = message && (mode & MODE_INDEXED) != 0 && reference == null;
+			this.sorted = message && (mode & MODE_SORTED) != 0 && reference == null;
+			this.canonical = message && (mode & MODE_CANONICAL) != 0;
+			this.descriptor = message && !skippable && !indexed && !sorted ? new IdentityHashMap<Class<?>, Integer>()
+					: null;
+		}
+
+		/**
+		 * コンテナのバイト長を登録.
+		 * 
+		 * @param pos 出力位置を設定します.
+		 * @param len バイト長を設定します.
+		 */
+		final void skipLength(int pos, int len) {
+			if (skipLength == null) {
+				skipLength = new long[64];
+			} else if (skipCount == skipLength.length) {
+				final long[] n = new long[skipCount << 1];
+				System.arraycopy(skipLength, 0, n, 0, skipCount);
+				skipLength = n;
+			}
+			skipLength[skipCount++] = ((long) pos << 32L) | (len & 0xffffffffL);
+		}
+
+		/**
+		 * 登録されたコンテナのバイト長をバッファにセット.
+		 * 
+		 * 子要素から順に登録されるため、位置順に並べ替えてからまとめてセットします.
+		 * 
+		 * @param buf 対象のバッファを設定します.
+		 */
+		final void flushSkipLength(ByteArrayIO buf) {
+			if (skipCount == 0) {
+				return;
+			}
+			Arrays.sort(skipLength, 0, skipCount);
+			final int[] index = new int[skipCount];
+			final int[] value = new int[skipCount];
+			for (int i = 0; i < skipCount; i++) {
+				index[i] = (int) (skipLength[i] >>> 32L);
+				value[i] = (int) skipLength[i];
+			}
+			buf.setInt(index, value, skipCount);
+			skipLength = null;
+			skipCount = 0;
+		}
+
+		/**
+		 * 出力済みオブジェクトの参照を出力.
+		 * 
+		 * @param buf 対象のバッファを設定します.
+		 * @param o   対象のオブジェクトを設定します.
+		 * @return boolean 出力済みで参照を出力した場合は[true]が返却されます.
+		 *                 初出の場合は参照番号を登録して[false]が返却されます.
+		 * @exception Exception 例外.
+		 */
+		final boolean reference(OutputStream buf, Object o) throws Exception {
+			if (reference == null) {
+				return false;
+			}
+			final Integer n = reference.get(o);
+			if (n == null) {
+				reference.put(o, reference.size());
+				return false;
+			}
+			head(buf, 62); // 出力済みオブジェクトの参照.
+			byte4(buf, n);
+			return true;
+		}
+
+		/**
+		 * Serializable を共有ストリームに出力.
+		 * 
+		 * @param o 対象のオブジェクトを設定します.
+		 * @return int 共有ストリーム内のオブジェクト番号が返却されます.
+		 * @exception Exception 例外.
+		 */
+		final int serial(Serializable o) throws Exception {
+			if (serialOut == null) {
+				serialBuf = new ByteArrayIO();
+				serialOut = new ObjectOutputStream(serialBuf);
+				serial = new IdentityHashMap<Object, Integer>();
+			}
+			Integer ret = serial.get(o);
+			if (ret == null) {
+				ret = serial.size();
+				serialOut.writeObject(o);
+				serial.put(o, ret);
+			}
+			return ret;
+		}
+
+		/**
+		 * フィールド定義番号を取得.
+		 * 
+		 * @param c 対象のクラスを設定します.
+		 * @return int 出力済みの場合は定義番号(1から開始)が返却されます.
+		 *             初出の場合は[0]が返却されるので、定義本体を出力します.
+		 */
+		final int descriptor(Class<?> c) {
+			if (descriptor == null) {
+				return 0;
+			}
+			final Integer ret = descriptor.get(c);
+			if (ret == null) {
+				descriptor.put(c, descriptor.size() + 1);
+				return 0;
+			}
+			return ret;
+		}
+	}
+
+	/**
+	 * デコード処理中の情報.
+	 * 
+	 * 1つのバイナリをデコードする間だけ有効な情報を保持します.
+	 */
+	static final class DecodeContext {
+		/** 生成前のオブジェクトの参照. **/
+		private static final Object UNRESOLVED = new Object();
+
+		/** シーケンス番号の文字列変換用情報. **/
+		final String[] stringMap;
+
+		/** 文字列番号単位のオブジェクト生成処理. **/
+		private Supplier<Object>[] factory;
+
+		/** 文字列番号単位のフィールド変換処理. **/
+		private FieldCodec[] fieldCodec;
+
+		/** 文字列番号単位のクラス. **/
+		private Class<?>[] clazz;
+
+		/** 読み込み済みのフィールド定義. **/
+		private List<FieldCodec.Descriptor> descriptor;
+
+		/** 定義位置単位のフィールド定義(遅延デコード時のみ. 同じ定義を再度読み込んだ場合に重複登録しない). **/
+		Map<Integer, FieldCodec.Descriptor> descriptorAt;
+
+		/** Serializable 共有ストリームの格納位置. **/
+		private byte[] serialBinary;
+		private int serialOff;
+		private int serialLength;
+
+		/** Serializable 共有ストリームの読み込み処理と読み込み済みオブジェクト. **/
+		private ObjectInputStream serialIn;
+		private List<Object> serial;
+
+		/** 参照番号単位のオブジェクト(nullの場合は同一性を保持しない). **/
+		List<Object> reference;
+
+		/** 再帰呼び出しの深さ. **/
+		int depth;
+
+		/** デコードオプション. **/
+		int option;
+
+		DecodeContext(String[] stringMap) {
+			this.stringMap = stringMap;
+		}
+
+		/**
+		 * Map を変更不可で復元するかチェック.
+		 * 
+		 * @return boolean [true]の場合、FrozenMap で復元します.
+		 */
+		final boolean frozen() {
+			return (option & DECODE_FROZEN) != 0 && reference == null;
+		}
+
+		/**
+		 * 要素を読み込んだ Map をデコードオプションに合わせて変換.
+		 * 
+		 * @param map 対象の Map を設定します.
+		 * @return Map 変換された Map が返却されます.
+		 */
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		final Map finish(Map map) {
+			if (primitiveKeys() && !map.isEmpty()) {
+				final Class<?> type = keyType(map.keySet().toArray(), 1, map.size());
+				if (type == Integer.class) {
+					return new IntArrayMap(map);
+				} else if (type == Long.class) {
+					return new LongArrayMap(map);
+				}
+			}
+			if (!frozen()) {
+				return map;
+			}
+			// AndroidMap は計算済みのハッシュ値をそのまま利用.
+			return map instanceof AndroidMap ? ((AndroidMap) map).freeze() : new FrozenMap(map);
+		}
+
+		/**
+		 * キーが全て Integer、または全て Long の Map をプリミティブのキーの Map で復元するかチェック.
+		 * 
+		 * @return boolean [true]の場合、IntArrayMap、LongArrayMap で復元します.
+		 */
+		final boolean primitiveKeys() {
+			return (option & DECODE_PRIMITIVE_KEYS) != 0 && reference == null;
+		}
+
+		/**
+		 * Serializable ではない通常のクラスをフィールド単位で復元するかチェック.
+		 * 
+		 * @return boolean [true]の場合、復元します.
+		 */
+		final boolean plainFields() {
+			return (option & DECODE_PLAIN_FIELDS) != 0;
+		}
+
+		/**
+		 * 読み込んだキーと値から Map を生成.
+		 * 
+		 * キーが全て Integer、または全て Long の場合は、キーをボックス化したまま保持せずに
+		 * IntArrayMap、LongArrayMap を生成します.
+		 * 
+		 * @param kv  キーと値を交互に並べた配列を設定します.
+		 * @param len 要素数を設定します.
+		 * @return Map 生成された Map が返却されます.
+		 */
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		final Map finish(Object[] kv, int len) {
+			final Class<?> type = len == 0 ? null : keyType(kv, 2, len);
+			if (type == Integer.class) {
+				return IntArrayMap.of(kv, len);
+			} else if (type == Long.class) {
+				return LongArrayMap.of(kv, len);
+			}
+			final Map map = newMap(len);
+			for (int i = 0; i < len; i++) {
+				map.put(kv[i << 1], kv[(i << 1) + 1]);
+			}
+			return finish(map);
+		}
+
+		// キーが全て同じクラスの場合はそのクラスを取得(異なる場合、null を含む場合は[null]).
+		private static final Class<?> keyType(Object[] keys, int step, int len) {
+			final Class<?> ret = keys[0] == null ? null : keys[0].getClass();
+			for (int i = 1, j = step; ret != null && i < len; i++, j += step) {
+				if (keys[j] == null || keys[j].getClass() != ret) {
+					return null;
+				}
+			}
+			return ret;
+		}
+
+		/**
+		 * 文字列番号のクラス名でオブジェクトを生成.
+		 * 
+		 * @param index クラス名の文字列番号を設定します.
+		 * @return Object 生成されたオブジェクトが返却されます.
+		 */
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		final Object newInstance(int index) {
+			if (factory == null) {
+				factory = new Supplier[stringMap.length];
+			}
+			Supplier<Object> f = factory[index];
+			if (f == null) {
+				f = FastReflect.getInstanceFactory(stringMap[index]);
+				factory[index] = f;
+			}
+			return f.get();
+		}
+
+		/**
+		 * 文字列番号のクラス名でクラスを取得.
+		 * 
+		 * @param index クラス名の文字列番号を設定します.
+		 * @return Class クラスが返却されます.
+		 */
+		final Class<?> classOf(int index) {
+			if (clazz == null) {
+				clazz = new Class<?>[stringMap.length];
+			}
+			Class<?> ret = clazz[index];
+			if (ret == null) {
+				ret = FastReflect.getClass(stringMap[index]);
+				clazz[index] = ret;
+			}
+			return ret;
+		}
+
+		/**
+		 * 文字列番号のクラス名でフィールド変換処理を取得.
+		 * 
+		 * @param index クラス名の文字列番号を設定します.
+		 * @return FieldCodec フィールド変換処理が返却されます.
+		 * @exception IOException SerializeObject.Codec が定義された SerializeObject 以外のクラス、
+		 *                        またはフィールド変換できないクラスの場合.
+		 */
+		final FieldCodec fieldCodec(int index) throws IOException {
+			if (fieldCodec == null) {
+				fieldCodec = new FieldCodec[stringMap.length];
+			}
+			FieldCodec ret = fieldCodec[index];
+			if (ret == null) {
+				ret = FieldCodec.serializeObject(classOf(index));
+				if (ret == null) {
+					throw new IOException("Class '" + stringMap[index] + "' cannot be decoded by fields.");
+				}
+				fieldCodec[index] = ret;
+			}
+			return ret;
+		}
+
+		/**
+		 * 参照番号を割り当ててオブジェクトを登録.
+		 * 
+		 * 子要素を読み込む前に呼び出して、エンコード時と同じ順番で参照番号を割り当てます.
+		 * 
+		 * @param o 対象のオブジェクトを設定します.
+		 * @return T 対象のオブジェクトが返却されます.
+		 */
+		final <T> T register(T o) {
+			if (reference != null) {
+				reference.add(o);
+			}
+			return o;
+		}
+
+		/**
+		 * オブジェクト生成前に参照番号を割り当て.
+		 * 
+		 * 子要素を読み込んだ後に生成するオブジェクト(レコード)で利用します.
+		 * 
+		 * @return int 参照番号が返却されます. 同一性を保持しない場合は[-1]が返却されます.
+		 */
+		final int reserve() {
+			if (reference == null) {
+				return -1;
+			}
+			reference.add(UNRESOLVED);
+			return reference.size() - 1;
+		}
+
+		/**
+		 * 割り当て済みの参照番号にオブジェクトを設定.
+		 * 
+		 * @param n 参照番号を設定します.
+		 * @param o 対象のオブジェクトを設定します.
+		 */
+		final void resolve(int n, Object o) {
+			if (n >= 0) {
+				reference.set(n, o);
+			}
+		}
+
+		/**
+		 * 参照番号のオブジェクトを取得.
+		 * 
+		 * @param n 参照番号を設定します.
+		 * @return Object オブジェクトが返却されます.
+		 * @exception IOException 参照先が存在しない場合.
+		 */
+		final Object reference(int n) throws IOException {
+			if (reference == null || n >= reference.size()) {
+				throw new IOException("Reference " + n + " does not exist.");
+			}
+			final Object ret = reference.get(n);
+			if (ret == UNRESOLVED) {
+				throw new IOException("Reference " + n + " is a cycle through an object that is not constructed yet.");
+			}
+			return ret;
+		}
+
+		/**
+		 * Serializable 共有ストリームの格納位置を設定.
+		 * 
+		 * @param b   対象のバイナリを設定します.
+		 * @param off 共有ストリームの開始位置を設定します.
+		 * @param len 共有ストリームの長さを設定します.
+		 */
+		final void serialBlock(byte[] b, int off, int len) {
+			serialBinary = b;
+			serialOff = off;
+			serialLength = len;
+		}
+
+		/**
+		 * Serializable 共有ストリームからオブジェクトを取得.
+		 * 
+		 * 共有ストリームはエンコード時の出現順に読み込まれるので、
+		 * 未読込の番号の場合は、その番号まで順に読み込みます.
+		 * 
+		 * @param n 共有ストリーム内のオブジェクト番号を設定します.
+		 * @return Object オブジェクトが返却されます.
+		 * @exception Exception 例外.
+		 */
+		final Object serial(int n) throws Exception {
+			if (serial == null) {
+				if (serialBinary == null) {
+					throw new IOException("Shared serialization stream does not exist.");
+				}
+				serialIn = new ObjectInputStream(new ByteArrayInputStream(serialBinary, serialOff, serialLength));
+				serial = new ArrayList<Object>();
+			}
+			while (serial.size() <= n) {
+				serial.add(serialIn.readObject());
+			}
+			return serial.get(n);
+		}
+
+		/**
+		 * 読み込んだフィールド定義を追加.
+		 * 
+		 * @param at 定義の開始位置を設定します.
+		 * @param d  対象のフィールド定義を設定します.
+		 * @return FieldCodec.Descriptor 追加したフィールド定義が返却されます.
+		 */
+		final FieldCodec.Descriptor addDescriptor(int at, FieldCodec.Descriptor d) {
+			if (descriptorAt != null) {
+				final FieldCodec.Descriptor o = descriptorAt.putIfAbsent(at, d);
+				if (o != null) {
+					return o;
+				}
+			}
+			if (descriptor == null) {
+				descriptor = new ArrayList<FieldCodec.Descriptor>();
+			}
+			descriptor.add(d);
+			return d;
+		}
+
+		/**
+		 * フィールド定義を取得.
+		 * 
+		 * @param n フィールド定義番号(1から開始)を設定します.
+		 * @return FieldCodec.Descriptor フィールド定義が返却されます.
+		 * @exception IOException 定義が存在しない場合.
+		 */
+		final FieldCodec.Descriptor descriptor(int n) throws IOException {
+			if (descriptor == null || n > descriptor.size()) {
+				throw new IOException("Field definition " + n + " does not exist.");
+			}
+			return descriptor.get(n - 1);
+		}
+	}
+
 	/**
 	 * 拡張エンコード、デコード処理を行う場合の継承クラス.
 	 * 
@@ -0,0 +1,885 @@
+package objectpack;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * パス指定による部分デコード.
+ *
+ * "a.b[3].c" のようなパスで指定された値のみを、バイナリを直接走査して取得します.
+ * 対象外の要素は Map や List を生成せずに読み飛ばし、文字列も必要なもののみ生成します.
+ * パスは '.' 区切りのキー名と、[n] 形式のインデックスで指定します.
+ *
+ * Map、List、Object配列以外(フィールド単位変換オブジェクト、列形式の List 等)に到達した場合は、
+ * その値を復元してから残りのパスを辿ります.
+ */
+final class SerializablePath {
+
+	/** 対象のバイナリ. **/
+	private final byte[] b;
+
+	/** 本体の終端位置. **/
+	private final int length;
+
+	/** デコード処理中の情報. **/
+	private final SerializableCore.DecodeContext ctx;
+
+	/** 文字列の開始位置. **/
+	private final int[] stringOff;
+
+	/** 文字列のバイト長. **/
+	private final int[] stringLen;
+
+	/** 全ての文字列を生成済みの場合は[true]. **/
+	private boolean strings;
+
+	/**
+	 * コンストラクタ.
+	 *
+	 * @param b      対象のバイナリを設定します.
+	 * @param length 本体の終端位置を設定します.
+	 * @param ctx    文字列を生成済みのデコード処理中の情報を設定します.
+	 */
+	SerializablePath(byte[] b, int length, SerializableCore.DecodeContext ctx) {
+		this.b = b;
+		this.length = length;
+		this.ctx = ctx;
+		this.stringOff = null;
+		this.stringLen = null;
+		this.strings = true;
+	}
+
+	private SerializablePath(byte[] b, int length, SerializableCore.DecodeContext ctx, int[] stringOff,
+			int[] stringLen) {
+		this.b = b;
+		this.length = length;
+		this.ctx = ctx;
+		this.stringOff = stringOff;
+		this.stringLen = stringLen;
+		this.strings = false;
+	}
+
+	/**
+	 * パスで指定された値を取得.
+	 *
+	 * @param b    対象のバイナリを設定します.
+	 * @param off  対象のオフセット値を設定します.
+	 * @param len  対象の長さを設定します.
+	 * @param path 対象のパスを設定します.
+	 * @return Object 指定された値が返却されます. 存在しない場合は[null]が返却されます.
+	 * @exception Exception 例外.
+	 */
+	static final Object get(byte[] b, int off, int len, String path) throws Exception {
+		final Object[] keys = parse(path);
+		final SerializablePath p = open(b, off, false);
+		if (p == null) {
+			return navigate(SerializableCore.decode(b, off, len), keys, 0);
+		}
+		return p.get(new int[] { off + 4 }, keys);
+	}
+
+	/**
+	 * バイナリを遅延デコード.
+	 *
+	 * Map、List は LazyMap、LazyList として返却し、要素は参照時に復元します.
+	 * 同一性保持と拡張変換処理が有効な場合は、全体を復元して返却します.
+	 *
+	 * @param b   対象のバイナリを設定します.
+	 * @param off 対象のオフセット値を設定します.
+	 * @param len 対象の長さを設定します.
+	 * @return Object 変換されたオブジェクトが返却されます.
+	 * @exception Exception 例外.
+	 */
+	static final Object lazy(byte[] b, int off, int len) throws Exception {
+		final SerializablePath p = open(b, off, true);
+		if (p == null) {
+			return SerializableCore.decode(b, off, len);
+		}
+		return p.lazy(new int[] { off + 4 });
+	}
+
+	// 文字情報の位置と拡張情報を読み込んで生成.
+	// 同一性保持と拡張変換処理は読み飛ばしで復元結果が変わるため、対象外として[null]を返却.
+	private static final SerializablePath open(byte[] b, int off, boolean lazy) throws Exception {
+		int endPoint = SerializableCore.fixed4Int(b, off);
+		final boolean extension = (endPoint & SerializableCore.HEAD_EXTENSION) != 0;
+		endPoint &= ~SerializableCore.HEAD_EXTENSION;
+
+		// 文字情報は位置のみを取得.
+		final int[] p = new int[] { off + endPoint };
+		final int n = SerializableCore.byte4Int(b, p);
+		final int[] so = new int[n];
+		final int[] sl = new int[n];
+		for (int i = 0; i < n; i++) {
+			sl[i] = SerializableCore.byte4Int(b, p);
+			so[i] = p[0];
+			p[0] += sl[i];
+		}
+		final SerializableCore.DecodeContext ctx = new SerializableCore.DecodeContext(new String[n]);
+		if (extension) {
+			SerializableCore.decodeExtension(ctx, b, p);
+		}
+		if (ctx.reference != null || SerializableCore.originCode() != null) {
+			return null;
+		}
+		if (lazy) {
+			// 同じフィールド定義を読み飛ばしと復元で2回読み込むため、定義位置で登録.
+			ctx.descriptorAt = new HashMap<Integer, FieldCodec.Descriptor>();
+		}
+		return new SerializablePath(b, off + endPoint, ctx, so, sl);
+	}
+
+	/**
+	 * 指定位置の値を遅延デコード.
+	 *
+	 * @param pos 対象のポジションを設定します. Map、List の場合は[-1]、それ以外は値の終端位置が設定されます.
+	 * @return Object Map、List の場合は遅延デコードのビュー、それ以外は復元された値が返却されます.
+	 * @exception Exception 例外.
+	 */
+	final Object lazy(int[] pos) throws Exception {
+		final int code = unwrap(pos);
+		if (code == 51 || code == 52) {
+			pos[0]++;
+			final int n = SerializableCore.byte4Int(b, pos);
+			final int start = pos[0];
+			pos[0] = -1;
+			return code == 52 ? new LazyMap(this, start, n, false) : new LazyList(this, start, n, false);
+		} else if (code == 56) {
+			pos[0]++;
+			final int n = SerializableCore.byte4Int(b, pos);
+			final int start = pos[0] + 4;
+			pos[0] = -1;
+			return new LazyMap(this, start, n, true);
+		} else if (code == 55 && b[pos[0] + 1] == 1) {
+			pos[0] += 2;
+			final int n = SerializableCore.byte4Int(b, pos);
+			final int start = pos[0] + 4;
+			pos[0] = -1;
+			return new LazyList(this, start, n, true);
+		}
+		return value(pos);
+	}
+
+	/**
+	 * 索引付き List、Map の要素の位置を取得.
+	 *
+	 * @param start 要素部の開始位置を設定します.
+	 * @param index 要素のインデックスを設定します.
+	 * @return int 要素の開始位置が返却されます.
+	 */
+	final int element(int start, int index) {
+		return IndexedArray.element(b, start, index);
+	}
+
+	/**
+	 * キーを並べ替えた索引付き Map からキーを二分探索.
+	 *
+	 * @param start 要素部の開始位置を設定します.
+	 * @param len   要素数を設定します.
+	 * @param key   対象のキーを設定します.
+	 * @return int 要素のインデックスが返却されます. 存在しない場合は[-1]が返却されます.
+	 */
+	final int search(int start, int len, String key) {
+		final byte[] k = key.getBytes(StandardCharsets.UTF_8);
+		final int[] p = new int[1];
+		int low = 0, high = len - 1, mid, c;
+		while (low <= high) {
+			mid = (low + high) >>> 1;
+			p[0] = IndexedArray.element(b, start, mid) + 1;
+			c = compare(SerializableCore.byte4Int(b, p), k);
+			if (c < 0) {
+				low = mid + 1;
+			} else if (c > 0) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+
+	// 文字列とキーの UTF-8 バイト列を符号なしで比較.
+	private final int compare(int no, byte[] k) {
+		final int o = stringOff[no];
+		final int len = Math.min(stringLen[no], k.length);
+		int c;
+		for (int i = 0; i < len; i++) {
+			if ((c = (b[o + i] & 0xff) - (k[i] & 0xff)) != 0) {
+				return c;
+			}
+		}
+		return stringLen[no] - k.length;
+	}
+
+	/**
+	 * 索引付き List、Map の終端位置を取得.
+	 *
+	 * @param start 要素部の開始位置を設定します.
+	 * @param len   要素数を設定します.
+	 * @return int 索引の終端位置が返却されます.
+	 */
+	final int indexedEnd(int start, int len) {
+		return IndexedArray.end(b, start, len);
+	}
+
+	/**
+	 * 遅延デコードのビューの終端位置を取得.
+	 *
+	 * @param v 対象の値を設定します.
+	 * @return int 全要素を走査済みのビューの場合は終端位置、それ以外は[-1]が返却されます.
+	 */
+	static final int end(Object v) {
+		// 最後の要素がビューの場合は、その終端位置を再帰せずに辿る.
+		int ret = -1;
+		while (ret < 0 && v != null) {
+			if (v instanceof LazyMap) {
+				ret = ((LazyMap) v).end();
+				v = ((LazyMap) v).last();
+			} else if (v instanceof LazyList) {
+				ret = ((LazyList) v).end();
+				v = ((LazyList) v).last();
+			} else {
+				return -1;
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * 遅延デコード中の例外を非チェック例外に変換.
+	 *
+	 * @param e 対象の例外を設定します.
+	 * @return RuntimeException 変換された例外が返却されます.
+	 */
+	static final RuntimeException unchecked(Exception e) {
+		return e instanceof RuntimeException ? (RuntimeException) e : new IllegalStateException(e);
+	}
+
+	// パスを辿って値を取得.
+	private final Object get(int[] pos, Object[] keys) throws Exception {
+		int code, n, i;
+		for (int k = 0; k < keys.length; k++) {
+			code = unwrap(pos);
+			if (keys[k] instanceof String) {
+				if (code == 56) {
+					// 並べ替えられたキーを二分探索.
+					pos[0]++;
+					n = SerializableCore.byte4Int(b, pos);
+					i = search(pos[0] + 4, n, (String) keys[k]);
+					if (i < 0) {
+						return null;
+					}
+					pos[0] = IndexedArray.element(b, pos[0] + 4, i) + 1;
+					SerializableCore.byte4Int(b, pos);
+					continue;
+				}
+				if (code != 52) {
+					return navigate(value(pos), keys, k);
+				}
+				// 文字列番号でキーを比較.
+				final int target = indexOf((String) keys[k]);
+				if (target < 0) {
+					return null;
+				}
+				pos[0]++;
+				n = SerializableCore.byte4Int(b, pos);
+				for (i = 0; i < n; i++) {
+					if ((b[pos[0]] & 0xff) == 1) {
+						pos[0]++;
+						if (SerializableCore.byte4Int(b, pos) == target) {
+							break;
+						}
+					} else {
+						skip(pos);
+					}
+					skip(pos);
+				}
+				if (i == n) {
+					return null;
+				}
+			} else {
+				if (code == 54 && k + 1 < keys.length && keys[k + 1] instanceof String) {
+					// 列形式の List<Map> は、対象の列のみを走査.
+					final int r = cell(pos, (Integer) keys[k], (String) keys[k + 1]);
+					if (r == CELL_NONE) {
+						return null;
+					} else if (r == CELL_VALUE) {
+						return navigate(cellValue, keys, k + 2);
+					}
+					k++;
+					continue;
+				}
+				if (code == 55) {
+					// 索引から要素の位置を取得.
+					pos[0] += 2;
+					n = SerializableCore.byte4Int(b, pos);
+					final int index = (Integer) keys[k];
+					if (index < 0 || index >= n) {
+						return null;
+					}
+					pos[0] = IndexedArray.element(b, pos[0] + 4, index);
+					continue;
+				}
+				if (code != 50 && code != 51) {
+					return navigate(value(pos), keys, k);
+				}
+				pos[0]++;
+				n = SerializableCore.byte4Int(b, pos);
+				final int index = (Integer) keys[k];
+				if (index < 0 || index >= n) {
+					return null;
+				}
+				for (i = 0; i < index; i++) {
+					skip(pos);
+				}
+			}
+		}
+		return value(pos);
+	}
+
+	/** 列形式の値: 存在しない. **/
+	private static final int CELL_NONE = -1;
+
+	/** 列形式の値: ポジションの位置に存在. **/
+	private static final int CELL_POSITION = 0;
+
+	/** 列形式の値: cellValue に生成済み. **/
+	private static final int CELL_VALUE = 1;
+
+	/** 列形式から生成された値. **/
+	private Object cellValue;
+
+	// 列形式の List<Map> から、指定行と指定キーの値を取得.
+	private final int cell(int[] pos, int index, String key) throws Exception {
+		pos[0]++;
+		final int rows = SerializableCore.byte4Int(b, pos);
+		final int cols = SerializableCore.byte4Int(b, pos);
+		final int target = indexOf(key);
+		final int[] kinds = new int[cols];
+		int i, j, col = -1;
+		for (j = 0; j < cols; j++) {
+			if (SerializableCore.byte4Int(b, pos) == target) {
+				col = j;
+			}
+			kinds[j] = SerializableCore.byte1Int(b, pos);
+		}
+		if (col < 0 || index < 0 || index >= rows) {
+			return CELL_NONE;
+		}
+		for (j = 0; j < col; j++) {
+			skipColumn(kinds[j], rows, pos);
+		}
+		switch (kinds[col]) {
+		case ColumnarList.KIND_STRING:
+			skip4(index, pos);
+			cellValue = string(SerializableCore.byte4Int(b, pos));
+			break;
+		case ColumnarList.KIND_INT:
+			skip4(index, pos);
+			cellValue = SerializableCore.byte4Int(b, pos);
+			break;
+		case ColumnarList.KIND_LONG:
+			skip8(index, pos);
+			cellValue = SerializableCore.byte8Long(b, pos);
+			break;
+		case ColumnarList.KIND_DOUBLE:
+			skip8(index, pos);
+			cellValue = Double.longBitsToDouble(SerializableCore.byte8Long(b, pos));
+			break;
+		case ColumnarList.KIND_BOOLEAN:
+			cellValue = b[pos[0] + index] == 1;
+			break;
+		case ColumnarList.KIND_DICTIONARY: {
+			// 辞書の位置を保持して、辞書番号から値を取得.
+			final int len = SerializableCore.byte4Int(b, pos);
+			final int n = SerializableCore.byte4Int(b, pos);
+			final int[] entry = new int[n];
+			for (i = 0; i < n; i++) {
+				entry[i] = pos[0];
+				skip(pos);
+			}
+			final int bits = SerializableCore.byte1Int(b, pos);
+			final int no = (int) PackedArray.word(b, ((long) pos[0] << 3L) + (long) index * bits, b.length - 8, bits,
+					(1L << bits) - 1L);
+			if (len != rows || no >= n) {
+				throw new IOException("Invalid dictionary index: " + no);
+			}
+			pos[0] = entry[no];
+			return CELL_POSITION;
+		}
+		default:
+			for (i = 0; i < index; i++) {
+				skip(pos);
+			}
+			return CELL_POSITION;
+		}
+		return CELL_VALUE;
+	}
+
+	// 4バイト可変長数値を指定数読み飛ばす.
+	private final void skip4(int n, int[] pos) {
+		for (int i = 0; i < n; i++) {
+			SerializableCore.byte4Int(b, pos);
+		}
+	}
+
+	// 8バイト可変長数値を指定数読み飛ばす.
+	private final void skip8(int n, int[] pos) {
+		for (int i = 0; i < n; i++) {
+			SerializableCore.byte8Long(b, pos);
+		}
+	}
+
+	// バイト長付きコンテナのヘッダを除いてタイプを取得.
+	private final int unwrap(int[] pos) throws Exception {
+		int code;
+		while (true) {
+			if (length <= pos[0]) {
+				throw new IOException("Attempting to process beyond specified length " + length + " byte: " + pos[0]);
+			}
+			if ((code = b[pos[0]] & 0xff) != 18) {
+				return code;
+			}
+			pos[0] += 5;
+		}
+	}
+
+	/**
+	 * 値を復元.
+	 *
+	 * @param pos 対象のポジションを設定します.
+	 * @return Object 復元された値が返却されます.
+	 * @exception Exception 例外.
+	 */
+	final Object value(int[] pos) throws Exception {
+		final int code = b[pos[0]] & 0xff;
+		if (code == 1) {
+			pos[0]++;
+			return string(SerializableCore.byte4Int(b, pos));
+		} else if (!primitive(code)) {
+			strings();
+		}
+		return SerializableCore.decodeObject(ctx, pos, b, length);
+	}
+
+	/**
+	 * オブジェクトを生成せずに読み飛ばす.
+	 *
+	 * @param pos 対象のポジションを設定します.
+	 * @exception Exception 例外.
+	 */
+	final void skip(int[] pos) throws Exception {
+		// 階層が深い場合はループで復元して読み飛ばす.
+		if (ctx.depth >= SerializableStack.RECURSIVE_DEPTH) {
+			strings();
+			SerializableCore.decodeObject(ctx, pos, b, length);
+			return;
+		}
+		ctx.depth++;
+		try {
+			skipValue(pos);
+		} finally {
+			ctx.depth--;
+		}
+	}
+
+	// タイプ毎に読み飛ばす.
+	private final void skipValue(int[] pos) throws Exception {
+		if (length <= pos[0]) {
+			throw new IOException("Attempting to process beyond specified length " + length + " byte: " + pos[0]);
+		}
+		int i, len;
+		final int code = SerializableCore.byte1Int(b, pos);
+		switch (code) {
+		case 0xff:
+			return;
+		case 2:
+		case 4:
+			pos[0] += 1;
+			return;
+		case 3:
+		case 5:
+			pos[0] += 2;
+			return;
+		case 1:
+		case 6:
+		case 8:
+		case 10:
+		case 12:
+		case 13:
+		case 61:
+		case 62:
+			SerializableCore.byte4Int(b, pos);
+			return;
+		case 7:
+		case 9:
+		case 11:
+		case 33:
+		case 34:
+			SerializableCore.byte8Long(b, pos);
+			return;
+		case 14:
+			// Date.
+			i = SerializableCore.byte1Int(b, pos);
+			if (i >= 1 && i <= 4) {
+				SerializableCore.byte8Long(b, pos);
+			}
+			return;
+		case 30:
+			// UUID.
+			pos[0] += 16;
+			return;
+		case 31:
+		case 32:
+			SerializableCore.byte8Long(b, pos);
+			SerializableCore.byte4Int(b, pos);
+			return;
+		case 35:
+			// Enum.
+			SerializableCore.byte4Int(b, pos);
+			SerializableCore.byte4Int(b, pos);
+			return;
+		case 36:
+			// Optional.
+			skip(pos);
+			return;
+		case 18:
+			// バイト長付きコンテナ.
+			len = SerializableCore.fixed4Int(b, pos[0]);
+			pos[0] += 4 + len;
+			return;
+		case 15:
+			// SerializeObject.
+			SerializableCore.byte4Int(b, pos);
+			len = SerializableCore.byte4Int(b, pos);
+			for (i = 0; i < len; i++) {
+				skip(pos);
+			}
+			return;
+		case 16: {
+			// SerializeObject(フィールド直接変換).
+			i = SerializableCore.byte4Int(b, pos);
+			string(i);
+			final FieldCodec fc = ctx.fieldCodec(i);
+			if (fc.fields.length != SerializableCore.byte4Int(b, pos)) {
+				throw new IOException("Field structure of class '" + ctx.stringMap[i] + "' does not match.");
+			}
+			for (i = 0; i < fc.fields.length; i++) {
+				skipKind(fc.fields[i].kind, pos);
+			}
+			return;
+		}
+		case 17: {
+			// フィールド単位変換オブジェクト(定義は後続の参照のために登録).
+			i = SerializableCore.byte4Int(b, pos);
+			final FieldCodec.Descriptor d;
+			if (i == 0) {
+				final int at = pos[0];
+				descriptorStrings(at);
+				d = ctx.addDescriptor(at, FieldCodec.decodeDescriptor(ctx, pos, b));
+			} else {
+				d = ctx.descriptor(i);
+			}
+			for (i = 0; i < d.kinds.length; i++) {
+				skipKind(d.kinds[i], pos);
+			}
+			return;
+		}
+		case 20:
+		case 21:
+			// boolean配列、byte配列.
+			len = SerializableCore.byte4Int(b, pos);
+			pos[0] += len;
+			return;
+		case 22:
+		case 23:
+			// char配列、short配列.
+			len = SerializableCore.byte4Int(b, pos);
+			pos[0] += len << 1;
+			return;
+		case 24:
+		case 26:
+		case 28:
+			// int配列、float配列、String配列.
+			len = SerializableCore.byte4Int(b, pos);
+			for (i = 0; i < len; i++) {
+				SerializableCore.byte4Int(b, pos);
+			}
+			return;
+		case 25:
+		case 27:
+			// long配列、double配列.
+			len = SerializableCore.byte4Int(b, pos);
+			for (i = 0; i < len; i++) {
+				SerializableCore.byte8Long(b, pos);
+			}
+			return;
+		case 37:
+		case 38:
+			// パックされたint配列、long配列.
+			PackedArray.skip(pos, b);
+			return;
+		case 39:
+			// 辞書変換されたString配列.
+			skipDictionary(pos, false);
+			return;
+		case 40:
+			// 辞書変換されたObject配列、List.
+			pos[0]++;
+			skipDictionary(pos, true);
+			return;
+		case 50:
+		case 51:
+		case 53:
+			// Object配列、List、Set.
+			len = SerializableCore.byte4Int(b, pos);
+			for (i = 0; i < len; i++) {
+				skip(pos);
+			}
+			return;
+		case 52:
+			// Map.
+			len = SerializableCore.byte4Int(b, pos) << 1;
+			for (i = 0; i < len; i++) {
+				skip(pos);
+			}
+			return;
+		case 54:
+			// 列形式の List<Map>.
+			skipColumnar(pos);
+			return;
+		case 55:
+			// 索引付き Object配列、List.
+			pos[0]++;
+			IndexedArray.skip(pos, b);
+			return;
+		case 56:
+			// キーを並べ替えた索引付き Map.
+			IndexedArray.skip(pos, b);
+			return;
+		case 60:
+			// シリアライズ可能オブジェクト.
+			len = SerializableCore.byte4Int(b, pos);
+			pos[0] += len;
+			return;
+		}
+		throw new IOException("Unknown type '" + code + "' detected.");
+	}
+
+	// フィールド型毎に読み飛ばす.
+	private final void skipKind(int kind, int[] pos) throws Exception {
+		switch (kind) {
+		case FieldCodec.KIND_BOOLEAN:
+		case FieldCodec.KIND_BYTE:
+			pos[0] += 1;
+			return;
+		case FieldCodec.KIND_CHAR:
+		case FieldCodec.KIND_SHORT:
+			pos[0] += 2;
+			return;
+		case FieldCodec.KIND_INT:
+		case FieldCodec.KIND_FLOAT:
+			SerializableCore.byte4Int(b, pos);
+			return;
+		case FieldCodec.KIND_LONG:
+		case FieldCodec.KIND_DOUBLE:
+			SerializableCore.byte8Long(b, pos);
+			return;
+		}
+		skip(pos);
+	}
+
+	// 辞書変換された値群を読み飛ばす.
+	private final void skipDictionary(int[] pos, boolean object) throws Exception {
+		final int len = SerializableCore.byte4Int(b, pos);
+		final int n = SerializableCore.byte4Int(b, pos);
+		for (int i = 0; i < n; i++) {
+			if (object) {
+				skip(pos);
+			} else {
+				SerializableCore.byte4Int(b, pos);
+			}
+		}
+		final int bits = SerializableCore.byte1Int(b, pos);
+		pos[0] += PackedArray.bytes(len, bits);
+	}
+
+	// 列形式の List<Map> を読み飛ばす.
+	private final void skipColumnar(int[] pos) throws Exception {
+		final int rows = SerializableCore.byte4Int(b, pos);
+		final int cols = SerializableCore.byte4Int(b, pos);
+		final int[] kinds = new int[cols];
+		int j;
+		for (j = 0; j < cols; j++) {
+			SerializableCore.byte4Int(b, pos);
+			kinds[j] = SerializableCore.byte1Int(b, pos);
+		}
+		for (j = 0; j < cols; j++) {
+			skipColumn(kinds[j], rows, pos);
+		}
+	}
+
+	// 列形式の1列を読み飛ばす.
+	private final void skipColumn(int kind, int rows, int[] pos) throws Exception {
+		switch (kind) {
+		case ColumnarList.KIND_STRING:
+		case ColumnarList.KIND_INT:
+			skip4(rows, pos);
+			return;
+		case ColumnarList.KIND_LONG:
+		case ColumnarList.KIND_DOUBLE:
+			skip8(rows, pos);
+			return;
+		case ColumnarList.KIND_BOOLEAN:
+			pos[0] += rows;
+			return;
+		case ColumnarList.KIND_DICTIONARY:
+			skipDictionary(pos, true);
+			return;
+		}
+		for (int i = 0; i < rows; i++) {
+			skip(pos);
+		}
+	}
+
+	// 文字列を取得.
+	private final String string(int no) {
+		final String[] m = ctx.stringMap;
+		if (m[no] == null && !strings) {
+			m[no] = new String(b, stringOff[no], stringLen[no], StandardCharsets.UTF_8);
+		}
+		return m[no];
+	}
+
+	// フィールド定義で利用する文字列(クラス名、フィールド名)を生成.
+	private final void descriptorStrings(int off) {
+		if (strings) {
+			return;
+		}
+		final int[] p = new int[] { off };
+		string(SerializableCore.byte4Int(b, p));
+		final int len = SerializableCore.byte4Int(b, p);
+		for (int i = 0; i < len; i++) {
+			string(SerializableCore.byte4Int(b, p));
+			p[0]++;
+		}
+	}
+
+	// 全ての文字列を生成.
+	private final void strings() {
+		if (!strings) {
+			final int len = stringOff.length;
+			for (int i = 0; i < len; i++) {
+				string(i);
+			}
+			strings = true;
+		}
+	}
+
+	// 文字列の番号を取得.
+	private final int indexOf(String key) {
+		final byte[] k = key.getBytes(StandardCharsets.UTF_8);
+		final int klen = k.length;
+		final int len = stringOff.length;
+		int j, o;
+		for (int i = 0; i < len; i++) {
+			if (stringLen[i] != klen) {
+				continue;
+			}
+			o = stringOff[i];
+			for (j = 0; j < klen && b[o + j] == k[j]; j++)
+				;
+			if (j == klen) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	// 文字列を参照しないタイプ.
+	private static final boolean primitive(int code) {
+		return (code >= 2 && code <= 11) || code == 14 || (code >= 20 && code <= 27) || (code >= 30 && code <= 34)
+				|| code == 37 || code == 38 || code == 0xff;
+	}
+
+	// 復元済みのオブジェクトからパスを辿る.
+	@SuppressWarnings("rawtypes")
+	private static final Object navigate(Object v, Object[] keys, int k) throws Exception {
+		for (; k < keys.length && v != null; k++) {
+			if (keys[k] instanceof String) {
+				if (v instanceof Map) {
+					v = ((Map) v).get(keys[k]);
+				} else if (v instanceof Collection || v.getClass().isArray()) {
+					return null;
+				} else {
+					// フィールド単位のオブジェクト.
+					final FieldCodec fc = FieldCodec.get(v.getClass());
+					final FieldCodec.Accessor a = fc == null ? null : fc.field((String) keys[k]);
+					if (a == null) {
+						return null;
+					}
+					try {
+						v = a.value(v);
+					} catch (Exception | Error e) {
+						throw e;
+					} catch (Throwable t) {
+						throw new IOException(t);
+					}
+				}
+			} else {
+				final int index = (Integer) keys[k];
+				if (v instanceof List) {
+					final List lst = (List) v;
+					v = index >= 0 && index < lst.size() ? lst.get(index) : null;
+				} else if (v.getClass().isArray()) {
+					v = index >= 0 && index < Array.getLength(v) ? Array.get(v, index) : null;
+				} else {
+					return null;
+				}
+			}
+		}
+		return v;
+	}
+
+	/**
+	 * パスを解析.
+	 *
+	 * @param path 対象のパスを設定します.
+	 * @return Object[] キー名(String)とインデックス(Integer)が返却されます.
+	 */
+	static final Object[] parse(String path) {
+		final List<Object> ret = new ArrayList<Object>();
+		final int len = path.length();
+		int i = 0, s;
+		char c;
+		while (i < len) {
+			c = path.charAt(i);
+			if (c == '.') {
+				i++;
+			} else if (c == '[') {
+				s = ++i;
+				while (i < len && path.charAt(i) != ']') {
+					i++;
+				}
+				if (i >= len) {
+					throw new IllegalArgumentException("Invalid path: " + path);
+				}
+				ret.add(Integer.parseInt(path.substring(s, i).trim()));
+				i++;
+			} else {
+				s = i;
+				while (i < len && (c = path.charAt(i)) != '.' && c != '[') {
+					i++;
+				}
+				ret.add(path.substring(s, i));
+			}
+		}
+		return ret.toArray();
+	}
+}
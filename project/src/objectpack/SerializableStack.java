@@ -0,0 +1,743 @@
+package objectpack;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 階層の深いオブジェクトのループ変換.
+ *
+ * SerializableCore は通常、オブジェクトの階層毎に再帰呼び出しで変換しますが、
+ * 再帰の深さが RECURSIVE_DEPTH を超えた場合はこの処理に切り替えて、
+ * 配列、List(列形式を含む)、Map、Set、Optional、SerializeObject、フィールド単位変換オブジェクトを
+ * 明示的なスタックで変換します. これにより Java スタックを消費せずに任意の深さを扱えます.
+ * 出力されるバイナリは再帰変換と同一ですが、MODE_INDEXED、MODE_SORTED の索引は付与せず、
+ * Object配列、List、Map は通常の形式で出力します(MODE_SORTED の Map のキーは並べ替えて出力します).
+ */
+final class SerializableStack {
+	private SerializableStack() {
+	}
+
+	/** 再帰呼び出しで変換する最大の深さ. **/
+	static final int RECURSIVE_DEPTH = 256;
+
+	/**
+	 * オブジェクトをループで変換.
+	 *
+	 * @param ctx エンコード処理中の情報を設定します.
+	 * @param buf 対象のバッファを設定します.
+	 * @param o   対象のオブジェクト(拡張変換処理の適用後)を設定します.
+	 * @exception Exception 例外.
+	 */
+	static final void encode(SerializableCore.EncodeContext ctx, OutputStream buf, Object o) throws Exception {
+		final SerializableCore.SerializableOriginCode origin = SerializableCore.originCode();
+		EncodeFrame top = null, f;
+		Object v = o;
+		while (true) {
+			f = encodeFrame(ctx, buf, v);
+			if (f != null) {
+				f.parent = top;
+				top = f;
+			}
+			// 次の要素を取得.
+			while (top != null && !top.next(ctx, buf)) {
+				top = top.parent;
+			}
+			if (top == null) {
+				return;
+			}
+			v = top.value;
+			// 拡張変換処理.
+			while (origin != null) {
+				v = origin.inObject(v);
+				if (!origin.encode(ctx.strSeqMap, buf, v)) {
+					break;
+				}
+				// 拡張変換処理で出力済みの場合は、次の要素を取得.
+				while (top != null && !top.next(ctx, buf)) {
+					top = top.parent;
+				}
+				if (top == null) {
+					return;
+				}
+				v = top.value;
+			}
+		}
+	}
+
+	/**
+	 * オブジェクトをループで復元.
+	 *
+	 * @param ctx    デコード処理中の情報を設定します.
+	 * @param pos    対象のポジションを設定します.
+	 * @param b      対象のバイナリを設定します.
+	 * @param length 対象の長さを設定します.
+	 * @return Object 変換されたオブジェクトが返却されます.
+	 * @exception Exception 例外.
+	 */
+	static final Object decode(SerializableCore.DecodeContext ctx, int[] pos, byte[] b, int length)
+			throws Exception {
+		final SerializableCore.SerializableOriginCode origin = SerializableCore.originCode();
+		DecodeFrame top = null, f;
+		Object v;
+		while (true) {
+			if (length <= pos[0]) {
+				throw new IOException(
+						"Attempting to process beyond specified length " + length + " byte: " + pos[0]);
+			}
+			f = decodeFrame(ctx, b[pos[0]] & 0xff, pos, b, length);
+			if (f != null) {
+				f.parent = top;
+				top = f;
+			} else {
+				v = SerializableCore._decodeObject(ctx, pos, b, length);
+				if (origin != null) {
+					v = origin.outObject(v);
+				}
+				if (top == null) {
+					return v;
+				}
+				top.add(v);
+			}
+			// 子要素が揃ったフレームを完了.
+			while (!top.more(ctx, pos, b, length)) {
+				v = top.finish(ctx);
+				if (origin != null) {
+					v = origin.outObject(v);
+				}
+				top = top.parent;
+				if (top == null) {
+					return v;
+				}
+				top.add(v);
+			}
+		}
+	}
+
+	// ループで変換するオブジェクトの場合はヘッダを出力してフレームを返却.
+	// それ以外のオブジェクトは、そのまま変換して[null]を返却.
+	@SuppressWarnings("rawtypes")
+	private static final EncodeFrame encodeFrame(SerializableCore.EncodeContext ctx, OutputStream buf, Object o)
+			throws Exception {
+		if (o == null || o instanceof String || o instanceof Boolean || o instanceof Character
+				|| o instanceof Number || o instanceof java.util.Date || o instanceof Enum) {
+			SerializableCore.encodeValue(ctx, buf, o);
+			return null;
+		} else if (o instanceof Optional) {
+			SerializableCore.head(buf, 36); // Optional.
+			return new OptionalEncode(((Optional<?>) o).orElse(null));
+		}
+		FieldCodec fc;
+		if (o instanceof SerializeObject) {
+			if (ctx.reference(buf, o)) {
+				return null;
+			}
+			fc = FieldCodec.serializeObject(o.getClass());
+			SerializableCore.head(buf, fc != null ? 16 : 15); // SerializeObject.
+			SerializableCore.stringBinary(ctx.strSeqMap, buf, o.getClass().getName());
+			if (fc != null) {
+				SerializableCore.byte4(buf, fc.fields.length);
+				return new FieldsEncode(fc, o);
+			}
+			final Object[] lst = ((SerializeObject) o).toSerialize();
+			SerializableCore.byte4(buf, lst.length);
+			return new ArrayEncode(lst);
+		} else if (o instanceof Object[] && !(o instanceof String[])) {
+			if (ctx.reference(buf, o)) {
+				return null;
+			}
+			if (DictionaryArray.encode(ctx, buf, (Object[]) o, false)) {
+				return null; // 辞書変換で出力.
+			}
+			SerializableCore.head(buf, 50); // Object配列.
+			SerializableCore.byte4(buf, ((Object[]) o).length);
+			return new ArrayEncode((Object[]) o);
+		} else if (o instanceof List) {
+			final String[] keys = SerializableCore.columnarKeys(ctx, (List) o);
+			if (keys != null) {
+				// 列形式で変換.
+				return new ColumnarEncode(SerializableCore.encodeColumnarHead(ctx, buf, (List) o, keys));
+			}
+			if (ctx.reference(buf, o)) {
+				return null;
+			}
+			if (((List) o).size() >= DictionaryArray.MIN_LENGTH
+					&& DictionaryArray.encode(ctx, buf, ((List) o).toArray(), true)) {
+				return null; // 辞書変換で出力.
+			}
+			SerializableCore.head(buf, 51); // Listオブジェクト.
+			SerializableCore.byte4(buf, ((List) o).size());
+			return new ListEncode((List) o);
+		} else if (o instanceof Map) {
+			if (ctx.reference(buf, o)) {
+				return null;
+			}
+			SerializableCore.head(buf, 52); // Mapオブジェクト.
+			SerializableCore.byte4(buf, ((Map) o).size());
+			if (ctx.canonical) {
+				return new MapEncode((Map) o,
+						Arrays.asList(CanonicalOrder.sort(((Map) o).keySet().toArray())).iterator());
+			}
+			// 索引は付与せず、キーのみ並べ替える.
+			final String[] keys = IndexedArray.sortedKeys(ctx, (Map) o);
+			return new MapEncode((Map) o,
+					keys != null ? Arrays.asList((Object[]) keys).iterator() : ((Map) o).keySet().iterator());
+		} else if (o instanceof Set) {
+			if (ctx.reference(buf, o)) {
+				return null;
+			}
+			SerializableCore.head(buf, 53); // Setオブジェクト.
+			SerializableCore.byte4(buf, ((Set) o).size());
+			return new IteratorEncode(ctx.canonical ? Arrays.asList(CanonicalOrder.sort(((Set) o).toArray())).iterator()
+					: ((Set) o).iterator());
+		} else if (!o.getClass().isArray() && (fc = FieldCodec.plain(o.getClass(), ctx.mode)) != null) {
+			if (ctx.reference(buf, o)) {
+				return null;
+			}
+			SerializableCore.head(buf, 17); // フィールド単位変換オブジェクト.
+			final int n = ctx.descriptor(fc.clazz);
+			SerializableCore.byte4(buf, n);
+			if (n == 0) {
+				fc.encodeDescriptor(ctx, buf);
+			}
+			return new FieldsEncode(fc, o);
+		}
+		SerializableCore.encodeValue(ctx, buf, o);
+		return null;
+	}
+
+	// ループで復元するオブジェクトの場合はオブジェクトを生成してフレームを返却.
+	// それ以外のオブジェクトは、ポジションを移動せずに[null]を返却.
+	@SuppressWarnings("rawtypes")
+	private static final DecodeFrame decodeFrame(SerializableCore.DecodeContext ctx, int code, int[] pos, byte[] b,
+			int length) throws Exception {
+		int i, len;
+		switch (code) {
+		case 18: {
+			// バイト長付きコンテナ.
+			pos[0] += 5;
+			if (length <= pos[0]) {
+				throw new IOException(
+						"Attempting to process beyond specified length " + length + " byte: " + pos[0]);
+			}
+			return decodeFrame(ctx, b[pos[0]] & 0xff, pos, b, length);
+		}
+		case 15: {
+			// SerializeObject.
+			pos[0]++;
+			final Object o = ctx.register(ctx.newInstance(SerializableCore.byte4Int(b, pos)));
+			len = SerializableCore.byte4Int(b, pos);
+			return new SerializeObjectDecode(o, new Object[len]);
+		}
+		case 16: {
+			// SerializeObject(フィールド直接変換).
+			pos[0]++;
+			i = SerializableCore.byte4Int(b, pos);
+			final FieldCodec fc = ctx.fieldCodec(i);
+			if (fc.fields.length != SerializableCore.byte4Int(b, pos)) {
+				throw new IOException("Field structure of class '" + ctx.stringMap[i] + "' does not match.");
+			}
+			return new FieldsDecode(fc.local, ctx.register(ctx.newInstance(i)), -1);
+		}
+		case 17: {
+			// フィールド単位変換オブジェクト.
+			pos[0]++;
+			i = SerializableCore.byte4Int(b, pos);
+			final int at = pos[0];
+			final FieldCodec.Descriptor d = (i == 0)
+					? ctx.addDescriptor(at, FieldCodec.decodeDescriptor(ctx, pos, b))
+					: ctx.descriptor(i);
+			if (d.codec.record) {
+				return new FieldsDecode(d, null, ctx.reserve());
+			}
+			return new FieldsDecode(d, ctx.register(d.codec.newInstance()), -1);
+		}
+		case 50: {
+			// Object配列.
+			pos[0]++;
+			len = SerializableCore.byte4Int(b, pos);
+			return new ArrayDecode(ctx.register(new Object[len]));
+		}
+		case 51: {
+			// List.
+			pos[0]++;
+			len = SerializableCore.byte4Int(b, pos);
+			return new CollectionDecode(ctx.register(new ArrayList(len)), len);
+		}
+		case 52: {
+			// Map.
+			pos[0]++;
+			len = SerializableCore.byte4Int(b, pos);
+			return new MapDecode(ctx.register(SerializableCore.newMap(len)), len);
+		}
+		case 53: {
+			// Set.
+			pos[0]++;
+			len = SerializableCore.byte4Int(b, pos);
+			return new CollectionDecode(ctx.register(SerializableCore.newSet(len)), len);
+		}
+		case 36: {
+			// Optional.
+			pos[0]++;
+			return new OptionalDecode();
+		}
+		case 54: {
+			// 列形式の List<Map>.
+			pos[0]++;
+			return new ColumnarDecode(SerializableCore.decodeColumnarHead(ctx, pos, b));
+		}
+		}
+		return null;
+	}
+
+	// MethodHandle の例外を変換.
+	private static final Exception convert(Throwable t) {
+		if (t instanceof Error) {
+			throw (Error) t;
+		} else if (t instanceof Exception) {
+			return (Exception) t;
+		}
+		return new IOException(t);
+	}
+
+	// エンコード用フレーム.
+	private static abstract class EncodeFrame {
+		EncodeFrame parent;
+
+		/** 次に変換する要素. **/
+		Object value;
+
+		/**
+		 * 次の要素を取得.
+		 *
+		 * @return boolean 要素が存在しない場合は[false]が返却されます.
+		 */
+		abstract boolean next(SerializableCore.EncodeContext ctx, OutputStream buf) throws Exception;
+	}
+
+	// 配列.
+	private static final class ArrayEncode extends EncodeFrame {
+		private final Object[] list;
+		private int index;
+
+		ArrayEncode(Object[] list) {
+			this.list = list;
+		}
+
+		boolean next(SerializableCore.EncodeContext ctx, OutputStream buf) {
+			if (index < list.length) {
+				value = list[index++];
+				return true;
+			}
+			return false;
+		}
+	}
+
+	// List.
+	@SuppressWarnings("rawtypes")
+	private static final class ListEncode extends EncodeFrame {
+		private final List list;
+		private final int length;
+		private int index;
+
+		ListEncode(List list) {
+			this.list = list;
+			this.length = list.size();
+		}
+
+		boolean next(SerializableCore.EncodeContext ctx, OutputStream buf) {
+			if (index < length) {
+				value = list.get(index++);
+				return true;
+			}
+			return false;
+		}
+	}
+
+	// Map(キー, 要素の順で取得).
+	@SuppressWarnings("rawtypes")
+	private static final class MapEncode extends EncodeFrame {
+		private final Map map;
+		private final Iterator it;
+		private Object key;
+		private boolean element;
+
+		MapEncode(Map map, Iterator it) {
+			this.map = map;
+			this.it = it;
+		}
+
+		boolean next(SerializableCore.EncodeContext ctx, OutputStream buf) {
+			if (element) {
+				element = false;
+				value = map.get(key);
+				return true;
+			} else if (it.hasNext()) {
+				element = true;
+				value = key = it.next();
+				return true;
+			}
+			return false;
+		}
+	}
+
+	// Set.
+	@SuppressWarnings("rawtypes")
+	private static final class IteratorEncode extends EncodeFrame {
+		private final Iterator it;
+
+		IteratorEncode(Iterator it) {
+			this.it = it;
+		}
+
+		boolean next(SerializableCore.EncodeContext ctx, OutputStream buf) {
+			if (it.hasNext()) {
+				value = it.next();
+				return true;
+			}
+			return false;
+		}
+	}
+
+	// Optional.
+	private static final class OptionalEncode extends EncodeFrame {
+		private final Object element;
+		private boolean done;
+
+		OptionalEncode(Object element) {
+			this.element = element;
+		}
+
+		boolean next(SerializableCore.EncodeContext ctx, OutputStream buf) {
+			if (done) {
+				return false;
+			}
+			done = true;
+			value = element;
+			return true;
+		}
+	}
+
+	// 列形式の List<Map>(オブジェクト列以外はそのまま出力).
+	private static final class ColumnarEncode extends EncodeFrame {
+		private final SerializableCore.Columnar columnar;
+		private int index;
+		private int row = -1;
+
+		ColumnarEncode(SerializableCore.Columnar columnar) {
+			this.columnar = columnar;
+		}
+
+		boolean next(SerializableCore.EncodeContext ctx, OutputStream buf) throws Exception {
+			final SerializableCore.Columnar c = columnar;
+			while (index < c.kinds.length) {
+				if (row < 0) {
+					if (SerializableCore.encodeColumn(ctx, buf, c, index)) {
+						index++;
+						continue;
+					}
+					row = 0;
+				}
+				if (row < c.rows) {
+					value = ((Object[]) c.columns[index])[row++];
+					return true;
+				}
+				index++;
+				row = -1;
+			}
+			return false;
+		}
+	}
+
+	// フィールド単位変換(プリミティブ型はそのまま出力).
+	private static final class FieldsEncode extends EncodeFrame {
+		private final FieldCodec.Accessor[] fields;
+		private final Object target;
+		private int index;
+
+		FieldsEncode(FieldCodec fc, Object target) {
+			this.fields = fc.fields;
+			this.target = target;
+		}
+
+		boolean next(SerializableCore.EncodeContext ctx, OutputStream buf) throws Exception {
+			FieldCodec.Accessor a;
+			try {
+				while (index < fields.length) {
+					a = fields[index++];
+					if (a.kind == FieldCodec.KIND_OBJECT) {
+						value = a.value(target);
+						return true;
+					}
+					a.encode(ctx, buf, target);
+				}
+			} catch (Throwable t) {
+				throw convert(t);
+			}
+			return false;
+		}
+	}
+
+	// デコード用フレーム.
+	private static abstract class DecodeFrame {
+		DecodeFrame parent;
+
+		/**
+		 * 次の子要素が必要かチェック.
+		 *
+		 * @return boolean 子要素が必要な場合は[true]が返却されます.
+		 */
+		abstract boolean more(SerializableCore.DecodeContext ctx, int[] pos, byte[] b, int length)
+				throws Exception;
+
+		/**
+		 * 子要素を追加.
+		 */
+		abstract void add(Object v) throws Exception;
+
+		/**
+		 * 復元したオブジェクトを取得.
+		 */
+		abstract Object finish(SerializableCore.DecodeContext ctx) throws Exception;
+	}
+
+	// Object配列.
+	private static final class ArrayDecode extends DecodeFrame {
+		private final Object[] list;
+		private int index;
+
+		ArrayDecode(Object[] list) {
+			this.list = list;
+		}
+
+		boolean more(SerializableCore.DecodeContext ctx, int[] pos, byte[] b, int length) {
+			return index < list.length;
+		}
+
+		void add(Object v) {
+			list[index++] = v;
+		}
+
+		Object finish(SerializableCore.DecodeContext ctx) {
+			return list;
+		}
+	}
+
+	// SerializeObject.
+	private static final class SerializeObjectDecode extends DecodeFrame {
+		private final Object target;
+		private final Object[] list;
+		private int index;
+
+		SerializeObjectDecode(Object target, Object[] list) {
+			this.target = target;
+			this.list = list;
+		}
+
+		boolean more(SerializableCore.DecodeContext ctx, int[] pos, byte[] b, int length) {
+			return index < list.length;
+		}
+
+		void add(Object v) {
+			list[index++] = v;
+		}
+
+		Object finish(SerializableCore.DecodeContext ctx) throws Exception {
+			((SerializeObject) target).toObject(list);
+			return target;
+		}
+	}
+
+	// List, Set.
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static final class CollectionDecode extends DecodeFrame {
+		private final java.util.Collection list;
+		private int remaining;
+
+		CollectionDecode(java.util.Collection list, int length) {
+			this.list = list;
+			this.remaining = length;
+		}
+
+		boolean more(SerializableCore.DecodeContext ctx, int[] pos, byte[] b, int length) {
+			return remaining > 0;
+		}
+
+		void add(Object v) {
+			list.add(v);
+			remaining--;
+		}
+
+		Object finish(SerializableCore.DecodeContext ctx) {
+			return list;
+		}
+	}
+
+	// Map.
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static final class MapDecode extends DecodeFrame {
+		private final Map map;
+		private int remaining;
+		private Object key;
+		private boolean element;
+
+		MapDecode(Map map, int length) {
+			this.map = map;
+			this.remaining = length;
+		}
+
+		boolean more(SerializableCore.DecodeContext ctx, int[] pos, byte[] b, int length) {
+			return element || remaining > 0;
+		}
+
+		void add(Object v) {
+			if (element) {
+				map.put(key, v);
+				element = false;
+				key = null;
+			} else {
+				key = v;
+				element = true;
+				remaining--;
+			}
+		}
+
+		Object finish(SerializableCore.DecodeContext ctx) {
+			return ctx.finish(map);
+		}
+	}
+
+	// Optional.
+	private static final class OptionalDecode extends DecodeFrame {
+		private Object element;
+		private boolean done;
+
+		boolean more(SerializableCore.DecodeContext ctx, int[] pos, byte[] b, int length) {
+			return !done;
+		}
+
+		void add(Object v) {
+			element = v;
+			done = true;
+		}
+
+		Object finish(SerializableCore.DecodeContext ctx) {
+			return Optional.ofNullable(element);
+		}
+	}
+
+	// 列形式の List<Map>(オブジェクト列以外はそのまま読み込み).
+	private static final class ColumnarDecode extends DecodeFrame {
+		private final SerializableCore.Columnar columnar;
+		private int index;
+		private int row = -1;
+
+		ColumnarDecode(SerializableCore.Columnar columnar) {
+			this.columnar = columnar;
+		}
+
+		boolean more(SerializableCore.DecodeContext ctx, int[] pos, byte[] b, int length) throws Exception {
+			final SerializableCore.Columnar c = columnar;
+			while (index < c.kinds.length) {
+				if (row < 0) {
+					if (SerializableCore.decodeColumn(ctx, pos, b, length, c, index)) {
+						index++;
+						continue;
+					}
+					row = 0;
+				}
+				if (row < c.rows) {
+					return true;
+				}
+				index++;
+				row = -1;
+			}
+			return false;
+		}
+
+		void add(Object v) {
+			((Object[]) columnar.columns[index])[row++] = v;
+		}
+
+		Object finish(SerializableCore.DecodeContext ctx) {
+			return columnar.list(ctx);
+		}
+	}
+
+	// フィールド単位変換(プリミティブ型はそのまま読み込み).
+	private static final class FieldsDecode extends DecodeFrame {
+		private final FieldCodec.Descriptor descriptor;
+		private final Object target;
+		private final Object[] args;
+		private final int reference;
+		private int index;
+
+		FieldsDecode(FieldCodec.Descriptor descriptor, Object target, int reference) {
+			this.descriptor = descriptor;
+			this.target = target;
+			this.args = descriptor.codec.record ? descriptor.codec.newArguments() : null;
+			this.reference = reference;
+		}
+
+		boolean more(SerializableCore.DecodeContext ctx, int[] pos, byte[] b, int length) throws Exception {
+			final int[] kinds = descriptor.kinds;
+			final FieldCodec.Accessor[] t = descriptor.target;
+			int k;
+			try {
+				while (index < kinds.length) {
+					k = kinds[index];
+					if (k == FieldCodec.KIND_OBJECT) {
+						return true;
+					}
+					if (args != null) {
+						final Object v = FieldCodec.read(k, ctx, pos, b, length);
+						if (t[index] != null) {
+							args[t[index].index] = v;
+						}
+					} else if (t[index] == null) {
+						FieldCodec.read(k, ctx, pos, b, length);
+					} else if (t[index].kind == k) {
+						t[index].decode(ctx, pos, b, length, target);
+					} else {
+						t[index].set(target, FieldCodec.read(k, ctx, pos, b, length));
+					}
+					index++;
+				}
+			} catch (Throwable e) {
+				throw convert(e);
+			}
+			return false;
+		}
+
+		void add(Object v) throws Exception {
+			final FieldCodec.Accessor t = descriptor.target[index++];
+			if (t == null) {
+				return;
+			}
+			if (args != null) {
+				args[t.index] = v;
+				return;
+			}
+			try {
+				t.set(target, v);
+			} catch (Throwable e) {
+				throw convert(e);
+			}
+		}
+
+		Object finish(SerializableCore.DecodeContext ctx) throws Exception {
+			if (args != null) {
+				final Object ret = descriptor.codec.construct(args);
+				ctx.resolve(reference, ret);
+				return ret;
+			}
+			return target;
+		}
+	}
+}
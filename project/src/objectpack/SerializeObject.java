@@ -1,5 +1,10 @@
 package objectpack;
 
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
 /**
  * バイナリ変換用オブジェクト. このオブジェクトを継承して、所定のメソッド実装した場合、
  * SerialzableCoreでのオブジェクトバイナリ化において、 処理速度や容量がSerializableよりも少なくなります.
@@ -22,4 +27,16 @@ public interface SerializeObject {
 	 */
 	public void toObject(Object[] values) throws Exception;
 
+	/**
+	 * フィールド直接変換の指定.
+	 * 
+	 * このアノテーションを定義した SerializeObject は、toSerialize / toObject の代わりに
+	 * static, transient 以外のフィールドを型毎に直接バイナリ変換します.
+	 * 復元には引数なしのコンストラクタが必要で、フィールド構成が異なるクラス間では復元できません.
+	 * フィールドにアクセスできない場合は、toSerialize / toObject で変換されます.
+	 */
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.TYPE)
+	public static @interface Codec {
+	}
 }
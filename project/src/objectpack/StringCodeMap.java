@@ -0,0 +1,214 @@
+package objectpack;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * エンコード時の文字列のシーケンス番号付与用の Map.
+ *
+ * オープンアドレス法(線形探索)のハッシュテーブルで、文字列のハッシュ値とシーケンス番号を
+ * プリミティブの配列で保持し、Integer のボックス化や挿入時の配列のシフトを行いません.
+ * 文字列は登録順(シーケンス番号順)にも保持するので、文字列テーブルをそのまま出力できます.
+ *
+ * シーケンス番号は登録順の連番のみ扱えます. また削除は行えません.
+ */
+final class StringCodeMap extends AbstractMap<String, Integer> {
+
+	/** ハッシュテーブルの初期サイズ. **/
+	private static final int INIT_LENGTH = 64;
+
+	/** ハッシュテーブルの文字列(空きは[null]). **/
+	private String[] table;
+
+	/** ハッシュテーブルのハッシュ値. **/
+	private int[] hashes;
+
+	/** ハッシュテーブルのシーケンス番号. **/
+	private int[] codes;
+
+	/** 登録順の文字列. **/
+	private String[] strings;
+
+	/** 登録数. **/
+	private int size;
+
+	/** エントリセット. **/
+	private Set<Map.Entry<String, Integer>> entrySet;
+
+	/**
+	 * コンストラクタ.
+	 */
+	StringCodeMap() {
+		table = new String[INIT_LENGTH];
+		hashes = new int[INIT_LENGTH];
+		codes = new int[INIT_LENGTH];
+		strings = new String[INIT_LENGTH >> 1];
+	}
+
+	/**
+	 * 文字列のシーケンス番号を取得.
+	 *
+	 * 未登録の場合は、次のシーケンス番号で登録します.
+	 *
+	 * @param s 対象の文字列を設定します.
+	 * @return int シーケンス番号が返却されます.
+	 */
+	final int code(String s) {
+		final int h = hash(s);
+		final int mask = table.length - 1;
+		int i = h & mask;
+		String k;
+		while ((k = table[i]) != null) {
+			if (hashes[i] == h && (k == s || k.equals(s))) {
+				return codes[i];
+			}
+			i = (i + 1) & mask;
+		}
+		final int n = size;
+		if (n == strings.length) {
+			strings = Arrays.copyOf(strings, n << 1);
+		}
+		strings[n] = s;
+		table[i] = s;
+		hashes[i] = h;
+		codes[i] = n;
+		// 使用率が 1/2 を超えたら拡張.
+		if (++size << 1 > table.length) {
+			rehash();
+		}
+		return n;
+	}
+
+	/**
+	 * 文字列のシーケンス番号を検索.
+	 *
+	 * @param s 対象の文字列を設定します.
+	 * @return int シーケンス番号が返却されます. 未登録の場合は[-1]が返却されます.
+	 */
+	final int indexOf(String s) {
+		final int h = hash(s);
+		final int mask = table.length - 1;
+		int i = h & mask;
+		String k;
+		while ((k = table[i]) != null) {
+			if (hashes[i] == h && (k == s || k.equals(s))) {
+				return codes[i];
+			}
+			i = (i + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * シーケンス番号の文字列を取得.
+	 *
+	 * @param n シーケンス番号を設定します.
+	 * @return String 文字列が返却されます.
+	 */
+	final String string(int n) {
+		return strings[n];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return key instanceof String && indexOf((String) key) >= 0;
+	}
+
+	@Override
+	public Integer get(Object key) {
+		if (!(key instanceof String)) {
+			return null;
+		}
+		final int n = indexOf((String) key);
+		return n < 0 ? null : n;
+	}
+
+	@Override
+	public Integer put(String key, Integer value) {
+		final int n = indexOf(key);
+		if (n >= 0) {
+			if (n != value) {
+				throw new UnsupportedOperationException("Sequence number cannot be changed: " + key);
+			}
+			return n;
+		} else if (value != size) {
+			throw new UnsupportedOperationException("Sequence number must be " + size + ": " + key);
+		}
+		code(key);
+		return null;
+	}
+
+	@Override
+	public Set<Map.Entry<String, Integer>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new AbstractSet<Map.Entry<String, Integer>>() {
+				@Override
+				public Iterator<Map.Entry<String, Integer>> iterator() {
+					return new Iterator<Map.Entry<String, Integer>>() {
+						private int n = 0;
+
+						@Override
+						public boolean hasNext() {
+							return n < size;
+						}
+
+						@Override
+						public Map.Entry<String, Integer> next() {
+							if (n >= size) {
+								throw new NoSuchElementException();
+							}
+							final int no = n++;
+							return new AbstractMap.SimpleImmutableEntry<String, Integer>(strings[no], no);
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return size;
+				}
+			};
+		}
+		return entrySet;
+	}
+
+	// ハッシュ値を取得(上位ビットを下位に混ぜる).
+	private static final int hash(String s) {
+		final int h = s.hashCode() * 0x9e3779b9;
+		return h ^ (h >>> 16);
+	}
+
+	// ハッシュテーブルを2倍に拡張.
+	private final void rehash() {
+		final String[] t = table;
+		final int[] hs = hashes;
+		final int[] cs = codes;
+		final int len = t.length << 1;
+		final int mask = len - 1;
+		table = new String[len];
+		hashes = new int[len];
+		codes = new int[len];
+		int j;
+		for (int i = 0; i < t.length; i++) {
+			if (t[i] != null) {
+				j = hs[i] & mask;
+				while (table[j] != null) {
+					j = (j + 1) & mask;
+				}
+				table[j] = t[i];
+				hashes[j] = hs[i];
+				codes[j] = cs[i];
+			}
+		}
+	}
+}